@@ -1,48 +1,98 @@
 package de.thecoolcraft11.itemProgressions;
 
 import de.thecoolcraft11.itemProgressions.advancement.ItemAdvancementManager;
+import de.thecoolcraft11.itemProgressions.command.ItemProgressionsCommand;
 import de.thecoolcraft11.itemProgressions.config.LockConfig;
 import de.thecoolcraft11.itemProgressions.listener.LockListeners;
+import de.thecoolcraft11.itemProgressions.listener.PlaytimeListener;
+import de.thecoolcraft11.itemProgressions.logic.CountdownFormat;
 import de.thecoolcraft11.itemProgressions.logic.LockEvaluator;
+import de.thecoolcraft11.itemProgressions.packet.ItemPacketHook;
+import de.thecoolcraft11.itemProgressions.packet.ProtocolLibItemPacketHook;
+import de.thecoolcraft11.itemProgressions.scheduler.TaskScheduler;
 import de.thecoolcraft11.itemProgressions.service.TimeTrackerService;
 import org.bukkit.Bukkit;
+import org.bukkit.command.PluginCommand;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.logging.Logger;
 
 public class ItemProgressions extends JavaPlugin {
     private TimeTrackerService timeService;
-    private BukkitTask ticker;
+    private TaskScheduler.Task ticker;
+    private TaskScheduler.Task sweeper;
+    private TaskScheduler.Task bypassRefresher;
+    private TaskScheduler.Task autosave;
     private LockListeners listeners;
 
     @Override
     public void onEnable() {
         saveDefaultConfig();
         LockConfig lockConfig = new LockConfig(getConfig());
-        this.timeService = new TimeTrackerService(getDataFolder());
+        TaskScheduler scheduler = TaskScheduler.create(this);
+        this.timeService = new TimeTrackerService(getDataFolder(), lockConfig);
 
         LockEvaluator evaluator = new LockEvaluator(lockConfig, timeService);
         ItemAdvancementManager advancementManager = new ItemAdvancementManager(this, evaluator, getConfig());
-        this.listeners = new LockListeners(evaluator, lockConfig.blockedMessage, lockConfig.messageCooldownSeconds, lockConfig.allowBreaking, lockConfig.allowDropping, advancementManager);
+        this.listeners = new LockListeners(evaluator, lockConfig.blockedMessage, lockConfig.messageCooldownSeconds, lockConfig.allowBreaking, lockConfig.allowDropping, advancementManager, createPacketHook(lockConfig), new CountdownFormat(lockConfig.countdownSteps), lockConfig.decorationBudgetMicros, scheduler);
         Bukkit.getPluginManager().registerEvents(listeners, this);
+        Bukkit.getPluginManager().registerEvents(new PlaytimeListener(timeService, scheduler), this);
 
+        PluginCommand command = getCommand("itemprogressions");
+        if (command != null) {
+            ItemProgressionsCommand executor = new ItemProgressionsCommand(listeners, timeService, scheduler);
+            command.setExecutor(executor);
+            command.setTabCompleter(executor);
+        }
 
-        this.ticker = Bukkit.getScheduler().runTaskTimer(this, () -> {
+
+        this.ticker = scheduler.runTimer(() -> {
             try {
                 timeService.tick();
+                evaluator.refreshServerState();
                 if (listeners != null) listeners.tickDecorate();
             } catch (Throwable t) {
                 getLogger().severe("Error while ticking time tracker!: " + t.getMessage());
             }
         }, 20L, 20L);
+
+        this.sweeper = scheduler.runTimer(() -> {
+            try {
+                listeners.sweep();
+            } catch (Throwable t) {
+                getLogger().severe("Error while decorating inventories!: " + t.getMessage());
+            }
+        }, 1L, 1L);
+
+        if (lockConfig.bypassRefreshSeconds > 0) {
+            long period = lockConfig.bypassRefreshSeconds * 20L;
+            this.bypassRefresher = scheduler.runTimer(listeners::recalculateBypasses, period, period);
+        }
+
+        if (lockConfig.saveIntervalSeconds > 0) {
+            long period = lockConfig.saveIntervalSeconds * 20L;
+            this.autosave = scheduler.runTimer(timeService::saveAsync, period, period);
+        }
+    }
+
+    private ItemPacketHook createPacketHook(LockConfig lockConfig) {
+        if (lockConfig.decorationMode != LockConfig.DecorationMode.PACKET) return null;
+        if (!Bukkit.getPluginManager().isPluginEnabled("ProtocolLib")) {
+            getLogger().warning("decorationMode is set to packet but ProtocolLib is not installed, falling back to item decoration");
+            return null;
+        }
+        return new ProtocolLibItemPacketHook(this);
     }
 
     @Override
     public void onDisable() {
         if (ticker != null) ticker.cancel();
-        if (timeService != null) timeService.save();
+        if (sweeper != null) sweeper.cancel();
+        if (bypassRefresher != null) bypassRefresher.cancel();
+        if (autosave != null) autosave.cancel();
+        if (listeners != null) listeners.shutdown();
+        if (timeService != null) timeService.close();
     }
 
     @Override
@@ -6,21 +6,49 @@ import com.google.gson.JsonObject;
 import org.bukkit.Bukkit;
 import org.bukkit.NamespacedKey;
 import org.bukkit.advancement.Advancement;
+import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.plugin.Plugin;
 import org.jspecify.annotations.NonNull;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 
 @SuppressWarnings("deprecation")
 public class AdvancementRegistry {
+    private static final String MANIFEST = "advancement-cache.yml";
+
     private final Plugin plugin;
+    private final boolean datapack;
     private final Gson gson = new GsonBuilder().disableHtmlEscaping().create();
     private final Map<NamespacedKey, Advancement> registered = new HashMap<>();
+    private Map<NamespacedKey, String> batch;
+    private volatile int generation;
 
     public AdvancementRegistry(Plugin plugin) {
+        this(plugin, false);
+    }
+
+    public AdvancementRegistry(Plugin plugin, boolean datapack) {
         this.plugin = plugin;
+        this.datapack = datapack;
     }
 
     public void register(String namespacedKeyString, JsonObject advancementData) {
@@ -33,6 +61,16 @@ public class AdvancementRegistry {
         JsonObject normalized = ensureAdvancementStructure(advancementData);
         String json = gson.toJson(normalized);
 
+        if (batch != null) {
+            batch.put(key, json);
+            return;
+        }
+        loadUnsafe(key, json);
+        generation++;
+        plugin.getLogger().info("Registered advancement: " + namespacedKeyString);
+    }
+
+    private boolean loadUnsafe(NamespacedKey key, String json) {
         Advancement existing = Bukkit.getAdvancement(key);
         if (existing != null) {
             Bukkit.getUnsafe().removeAdvancement(key);
@@ -42,20 +80,199 @@ public class AdvancementRegistry {
 
         Advancement advancement = Bukkit.getUnsafe().loadAdvancement(key, json);
         if (advancement == null) {
-            plugin.getLogger().warning("Server rejected advancement " + namespacedKeyString + ")");
-            return;
+            plugin.getLogger().warning("Server rejected advancement " + key + ")");
+            return false;
         }
 
         registered.put(key, advancement);
-        plugin.getLogger().info("Registered advancement: " + namespacedKeyString);
+        return true;
     }
 
     public void registerAll(Map<String, JsonObject> advancements) {
-        clearRegistered();
+        beginBatch();
         advancements.forEach(this::register);
+        commitBatch();
         plugin.getLogger().info("Loaded " + registered.size() + " advancements into the runtime registry");
     }
 
+    public void beginBatch() {
+        if (batch == null) batch = new LinkedHashMap<>();
+    }
+
+    public void commitBatch() {
+        Map<NamespacedKey, String> pending = batch;
+        batch = null;
+        if (pending == null || pending.isEmpty()) return;
+
+        long start = System.nanoTime();
+        String mode = datapack && !Bukkit.getWorlds().isEmpty() ? "datapack" : "unsafe";
+        Map<NamespacedKey, String> cached = readManifest(mode);
+        Map<NamespacedKey, String> hashes = new HashMap<>();
+        Map<NamespacedKey, String> changed = new LinkedHashMap<>();
+        for (Map.Entry<NamespacedKey, String> entry : pending.entrySet()) {
+            NamespacedKey key = entry.getKey();
+            String hash = hash(entry.getValue());
+            hashes.put(key, hash);
+            Advancement current = hash.equals(cached.get(key)) ? Bukkit.getAdvancement(key) : null;
+            if (current != null) {
+                registered.put(key, current);
+            } else {
+                changed.put(key, entry.getValue());
+            }
+        }
+        Set<NamespacedKey> removed = new HashSet<>(cached.keySet());
+        removed.addAll(registered.keySet());
+        removed.removeAll(pending.keySet());
+
+        if (!changed.isEmpty() || !removed.isEmpty()) {
+            if (mode.equals("datapack") && writeDatapack(changed, removed, cached.isEmpty()) && reloadData(changed, removed)) {
+                for (NamespacedKey key : pending.keySet()) {
+                    Advancement advancement = Bukkit.getAdvancement(key);
+                    if (advancement == null) {
+                        plugin.getLogger().warning("Server rejected advancement " + key + ")");
+                        registered.remove(key);
+                        continue;
+                    }
+                    registered.put(key, advancement);
+                }
+            } else {
+                mode = "unsafe";
+                removed.forEach(this::unregister);
+                changed.forEach(this::loadUnsafe);
+            }
+        }
+        if (mode.equals("unsafe") && !Bukkit.getWorlds().isEmpty()) deleteDatapack();
+        hashes.keySet().retainAll(registered.keySet());
+        writeManifest(mode, hashes);
+        generation++;
+
+        long millis = (System.nanoTime() - start) / 1_000_000L;
+        plugin.getLogger().info("Registered " + registered.size() + "/" + pending.size() + " advancements ("
+                + changed.size() + " changed, " + removed.size() + " removed) "
+                + (changed.isEmpty() && removed.isEmpty() ? "from cache" : mode.equals("datapack") ? "through datapack " + packFolder().getName() : "through per-key loading")
+                + " in " + millis + " ms");
+    }
+
+    private void deleteDatapack() {
+        Path folder = packFolder().toPath();
+        try {
+            deleteTree(folder);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Could not delete stale advancement datapack " + folder + ": " + e.getMessage());
+        }
+    }
+
+    private static void deleteTree(Path root) throws IOException {
+        if (!Files.isDirectory(root)) return;
+        try (Stream<Path> walk = Files.walk(root)) {
+            for (Path path : walk.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private boolean writeDatapack(Map<NamespacedKey, String> changed, Set<NamespacedKey> removed, boolean rebuild) {
+        File folder = packFolder();
+        try {
+            Path data = folder.toPath().resolve("data");
+            if (rebuild) deleteTree(data);
+            Files.createDirectories(data);
+
+            JsonObject pack = new JsonObject();
+            pack.addProperty("description", "Advancements generated by " + plugin.getName());
+            int format = packFormat();
+            pack.addProperty("pack_format", format);
+            if (format >= 82) {
+                pack.addProperty("min_format", format);
+                pack.addProperty("max_format", format);
+            }
+            JsonObject meta = new JsonObject();
+            meta.add("pack", pack);
+            Files.writeString(folder.toPath().resolve("pack.mcmeta"), gson.toJson(meta), StandardCharsets.UTF_8);
+
+            for (NamespacedKey key : removed) {
+                Files.deleteIfExists(advancementFile(data, key));
+            }
+            for (Map.Entry<NamespacedKey, String> entry : changed.entrySet()) {
+                Path file = advancementFile(data, entry.getKey());
+                Files.createDirectories(file.getParent());
+                Files.writeString(file, entry.getValue(), StandardCharsets.UTF_8);
+            }
+            return true;
+        } catch (IOException e) {
+            plugin.getLogger().warning("Could not write advancement datapack " + folder + ", falling back to per-key loading: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static Path advancementFile(Path data, NamespacedKey key) {
+        return data.resolve(key.getNamespace()).resolve("advancement").resolve(key.getKey() + ".json");
+    }
+
+    private boolean reloadData(Map<NamespacedKey, String> changed, Set<NamespacedKey> removed) {
+        changed.keySet().forEach(this::unregister);
+        removed.forEach(this::unregister);
+        try {
+            Bukkit.reloadData();
+            return true;
+        } catch (RuntimeException e) {
+            plugin.getLogger().warning("Could not reload datapacks, falling back to per-key loading: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private File packFolder() {
+        return new File(new File(Bukkit.getWorlds().getFirst().getWorldFolder(), "datapacks"), plugin.getName().toLowerCase(Locale.ROOT) + "-advancements");
+    }
+
+    private static int packFormat() {
+        int dataVersion = Bukkit.getUnsafe().getDataVersion();
+        if (dataVersion >= 4554) return 88;
+        if (dataVersion >= 4438) return 81;
+        if (dataVersion >= 4435) return 80;
+        if (dataVersion >= 4325) return 71;
+        if (dataVersion >= 4189) return 61;
+        if (dataVersion >= 4080) return 57;
+        return 48;
+    }
+
+    private Map<NamespacedKey, String> readManifest(String mode) {
+        Map<NamespacedKey, String> hashes = new HashMap<>();
+        File file = new File(plugin.getDataFolder(), MANIFEST);
+        if (!file.isFile()) return hashes;
+        YamlConfiguration cfg = YamlConfiguration.loadConfiguration(file);
+        if (!mode.equals(cfg.getString("registration")) || cfg.getInt("packFormat") != packFormat()) return hashes;
+        for (String line : cfg.getStringList("advancements")) {
+            int split = line.indexOf(' ');
+            NamespacedKey key = split > 0 ? parseKey(line.substring(split + 1)) : null;
+            if (key != null) hashes.put(key, line.substring(0, split));
+        }
+        return hashes;
+    }
+
+    private void writeManifest(String mode, Map<NamespacedKey, String> hashes) {
+        YamlConfiguration cfg = new YamlConfiguration();
+        cfg.set("registration", mode);
+        cfg.set("packFormat", packFormat());
+        List<String> lines = new ArrayList<>(hashes.size());
+        hashes.forEach((key, hash) -> lines.add(hash + " " + key));
+        Collections.sort(lines);
+        cfg.set("advancements", lines);
+        try {
+            cfg.save(new File(plugin.getDataFolder(), MANIFEST));
+        } catch (IOException e) {
+            plugin.getLogger().warning("Could not save " + MANIFEST + ": " + e.getMessage());
+        }
+    }
+
+    private static String hash(String json) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     public boolean unregister(String namespacedKeyString) {
         NamespacedKey key = parseKey(namespacedKeyString);
         if (key == null) {
@@ -66,12 +283,22 @@ public class AdvancementRegistry {
 
     private boolean unregister(NamespacedKey key) {
         registered.remove(key);
+        generation++;
         return Bukkit.getUnsafe().removeAdvancement(key);
     }
 
     public void clearRegistered() {
         registered.keySet().forEach(key -> Bukkit.getUnsafe().removeAdvancement(key));
         registered.clear();
+        generation++;
+    }
+
+    public int generation() {
+        return generation;
+    }
+
+    public void invalidate() {
+        generation++;
     }
 
     private NamespacedKey parseKey(String key) {
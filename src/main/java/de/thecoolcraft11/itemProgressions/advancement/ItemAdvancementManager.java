@@ -7,6 +7,7 @@ import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
 import org.bukkit.World;
+import org.bukkit.advancement.Advancement;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
@@ -15,6 +16,7 @@ import org.bukkit.plugin.Plugin;
 import java.text.SimpleDateFormat;
 import java.time.Instant;
 import java.util.*;
+import java.util.regex.Pattern;
 
 
 public class ItemAdvancementManager implements de.thecoolcraft11.itemProgressions.listener.LockListeners.AdvancementGranting {
@@ -43,14 +45,14 @@ public class ItemAdvancementManager implements de.thecoolcraft11.itemProgression
     private final Map<LockConfig.DimensionLockRule, String> dimensionRuleAdvancementKeys = new HashMap<>();
     private final List<String> dummyAdvancementKeys = new ArrayList<>();
     private int dummyCounter = 0;
+    private volatile Handles handles;
 
     public ItemAdvancementManager(Plugin plugin, LockEvaluator evaluator, FileConfiguration cfg) {
         this.plugin = plugin;
         this.evaluator = evaluator;
-        this.registry = new AdvancementRegistry(plugin);
-
         String root = "itemAdvancements";
         boolean advancementsEnabled = cfg.getBoolean(root + ".enabled", true);
+        this.registry = new AdvancementRegistry(plugin, !"unsafe".equalsIgnoreCase(cfg.getString(root + ".registration", "datapack")));
 
 
         Object gridLayoutObj = cfg.get(root + ".gridLayout");
@@ -81,11 +83,13 @@ public class ItemAdvancementManager implements de.thecoolcraft11.itemProgression
             return;
         }
 
+        registry.beginBatch();
         registerTab();
         registerItemRuleAdvancements();
         registerItemAdvancements();
         registerDimensionRuleAdvancements();
         registerDimensionAdvancements();
+        registry.commitBatch();
 
         for (Player p : Bukkit.getOnlinePlayers()) {
             grantRootAndRules(p);
@@ -152,125 +156,37 @@ public class ItemAdvancementManager implements de.thecoolcraft11.itemProgression
             itemList.add(mat);
         }
 
+        ItemLayout.Mode mode;
         if (gridLayout instanceof String gridMode) {
-            switch (gridMode) {
-                case "columns" -> registerItemAdvancementsColumns(itemList);
-                case "square" -> registerItemAdvancementsGrid(itemList);
-                case "auto" -> registerItemAdvancementsAuto(itemList);
-                default -> registerItemAdvancementsLinear(itemList);
-            }
+            mode = switch (gridMode) {
+                case "columns" -> ItemLayout.Mode.COLUMNS;
+                case "square" -> ItemLayout.Mode.SQUARE;
+                case "auto" -> ItemLayout.Mode.AUTO;
+                default -> ItemLayout.Mode.LINEAR;
+            };
         } else if (gridLayout instanceof Boolean && (Boolean) gridLayout) {
-            registerItemAdvancementsGrid(itemList);
+            mode = ItemLayout.Mode.SQUARE;
         } else {
-            registerItemAdvancementsLinear(itemList);
-        }
-    }
-
-    private void registerItemAdvancementsLinear(List<Material> itemList) {
-        for (Material mat : itemList) {
-            registerSingleItemAdvancement(mat, null);
-        }
-    }
-
-    private void registerItemAdvancementsColumns(List<Material> itemList) {
-        if (itemList.isEmpty()) {
-            return;
+            mode = ItemLayout.Mode.LINEAR;
         }
 
-
-        Map<LockConfig.LockRule, List<Material>> itemsByRule = new HashMap<>();
-        for (Material mat : itemList) {
-            for (LockConfig.LockRule rule : evaluator.config().rules) {
-                if (rule.matches(mat)) {
-                    itemsByRule.computeIfAbsent(rule, k -> new ArrayList<>()).add(mat);
-                    break;
-                }
+        ItemLayout layout = ItemLayout.partition(evaluator.config(), itemList);
+        layout.place(mode, gridWidth, ruleAdvancementKeys, tabKey, new ItemLayout.Sink() {
+            @Override
+            public String item(Material mat, String parentKey) {
+                return registerSingleItemAdvancement(mat, parentKey);
             }
-        }
-
 
-        for (LockConfig.LockRule rule : evaluator.config().rules) {
-            List<Material> ruleItems = itemsByRule.get(rule);
-            if (ruleItems == null || ruleItems.isEmpty()) {
-                continue;
+            @Override
+            public String divider(String parentKey) {
+                return createDummyAdvancement(parentKey);
             }
 
-            String ruleKey = ruleAdvancementKeys.get(rule);
-            if (ruleKey == null) {
-                continue;
+            @Override
+            public void describe(LockConfig.LockRule rule, String shape, int total) {
+                plugin.getLogger().info("Creating " + shape + " for rule " + (rule.displayName() != null ? rule.displayName() : "Rule") + " with " + total + " items");
             }
-
-            plugin.getLogger().info("Creating column grid for rule " + (rule.displayName() != null ? rule.displayName() : "Rule") + " with " + ruleItems.size() + " items");
-
-            final String namespacePrefix = plugin.getName().toLowerCase(Locale.ROOT);
-            String lastItemKey = null;
-
-            for (Material mat : ruleItems) {
-                String itemParent = (lastItemKey == null) ? ruleKey : lastItemKey;
-                registerSingleItemAdvancementWithParent(mat, itemParent);
-                lastItemKey = namespacePrefix + ":lock_" + mat.name().toLowerCase(Locale.ROOT);
-            }
-
-            if (lastItemKey != null) {
-                createDummyAdvancement(lastItemKey);
-            }
-        }
-
-    }
-
-    private void registerItemAdvancementsAuto(List<Material> itemList) {
-        if (itemList.isEmpty()) {
-            return;
-        }
-
-        Map<LockConfig.LockRule, List<Material>> itemsByRule = new HashMap<>();
-        for (Material mat : itemList) {
-            for (LockConfig.LockRule rule : evaluator.config().rules) {
-                if (rule.matches(mat)) {
-                    itemsByRule.computeIfAbsent(rule, k -> new ArrayList<>()).add(mat);
-                    break;
-                }
-            }
-        }
-
-        java.util.function.Function<Material, String> getAdvKey = (mat) ->
-                plugin.getName().toLowerCase(Locale.ROOT) + ":lock_" + mat.name().toLowerCase(Locale.ROOT);
-
-        for (LockConfig.LockRule rule : evaluator.config().rules) {
-            List<Material> ruleItems = itemsByRule.get(rule);
-            if (ruleItems == null || ruleItems.isEmpty()) {
-                continue;
-            }
-
-            String ruleKey = ruleAdvancementKeys.get(rule);
-            if (ruleKey == null) {
-                continue;
-            }
-
-            int total = ruleItems.size();
-            int width = (int) Math.ceil(Math.sqrt(total));
-            width = Math.max(1, width);
-            int rows = (int) Math.ceil(total / (double) width);
-
-            plugin.getLogger().info("Creating auto grid (" + width + "x" + rows + ") for rule " + (rule.displayName() != null ? rule.displayName() : "Rule") + " with " + total + " items");
-
-            for (int row = 0; row < rows; row++) {
-                int rowStart = row * width;
-                int rowEnd = Math.min(total, rowStart + width);
-                String previousItemKey = null;
-
-                for (int idx = rowStart; idx < rowEnd; idx++) {
-                    Material mat = ruleItems.get(idx);
-                    String parentKey = (idx == rowStart) ? ruleKey : previousItemKey;
-                    registerSingleItemAdvancementWithParent(mat, parentKey);
-                    previousItemKey = getAdvKey.apply(mat);
-                }
-
-                if (previousItemKey != null) {
-                    createDummyAdvancement(previousItemKey);
-                }
-            }
-        }
+        });
     }
 
     private String createDummyAdvancement(String parentKey) {
@@ -294,80 +210,7 @@ public class ItemAdvancementManager implements de.thecoolcraft11.itemProgression
     }
 
 
-    private void registerItemAdvancementsGrid(List<Material> itemList) {
-        if (itemList.isEmpty()) {
-            return;
-        }
-
-
-        Map<LockConfig.LockRule, List<Material>> itemsByRule = new HashMap<>();
-        for (Material mat : itemList) {
-            for (LockConfig.LockRule rule : evaluator.config().rules) {
-                if (rule.matches(mat)) {
-                    itemsByRule.computeIfAbsent(rule, k -> new ArrayList<>()).add(mat);
-                    break;
-                }
-            }
-        }
-
-        java.util.function.Function<Material, String> getAdvKey = (mat) ->
-                plugin.getName().toLowerCase(Locale.ROOT) + ":lock_" + mat.name().toLowerCase(Locale.ROOT);
-
-
-        for (LockConfig.LockRule rule : evaluator.config().rules) {
-            List<Material> ruleItems = itemsByRule.get(rule);
-            if (ruleItems == null || ruleItems.isEmpty()) {
-                continue;
-            }
-
-            String ruleKey = ruleAdvancementKeys.get(rule);
-            if (ruleKey == null) {
-                continue;
-            }
-
-            int total = ruleItems.size();
-            int height = (int) Math.ceil(total / (double) gridWidth);
-            plugin.getLogger().info("Creating " + gridWidth + "x" + height + " square grid for rule " + (rule.displayName() != null ? rule.displayName() : "Rule") + " with " + total + " items");
-
-
-            String previousDummy = null;
-
-            for (int col = 0; col < gridWidth; col++) {
-                String parentKey = (col == 0) ? ruleKey : previousDummy;
-                String lastItemKey = null;
-
-                for (int row = 0; row < height; row++) {
-                    int itemIndex = row + (col * height);
-
-                    if (itemIndex >= total) {
-                        break;
-                    }
-
-                    Material mat = ruleItems.get(itemIndex);
-                    String itemParent;
-
-                    if (row == 0) {
-
-                        itemParent = parentKey;
-                    } else {
-
-                        itemParent = lastItemKey;
-                    }
-
-                    registerSingleItemAdvancementWithParent(mat, itemParent);
-                    lastItemKey = getAdvKey.apply(mat);
-                }
-
-
-                if (lastItemKey != null) {
-                    previousDummy = createDummyAdvancement(lastItemKey);
-                }
-            }
-        }
-    }
-
-
-    private void registerSingleItemAdvancement(Material mat, String customParent) {
+    private String registerSingleItemAdvancement(Material mat, String customParent) {
         String matKey = mat.name().toLowerCase(Locale.ROOT);
         String title = getItemName(mat);
         String icon = getIconForMaterial(mat);
@@ -378,20 +221,19 @@ public class ItemAdvancementManager implements de.thecoolcraft11.itemProgression
         long seconds = 0L;
 
 
-        for (LockConfig.LockRule rule : evaluator.config().rules) {
-            if (rule.matches(mat)) {
-                if (customParent == null) {
+        List<LockConfig.LockRule> matching = evaluator.config().rulesFor(mat);
+        if (!matching.isEmpty()) {
+            LockConfig.LockRule rule = matching.getFirst();
+            if (customParent == null) {
 
-                    String ruleKey = ruleAdvancementKeys.get(rule);
-                    if (ruleKey != null) {
-                        parentAdvancementKey = ruleKey;
-                    }
+                String ruleKey = ruleAdvancementKeys.get(rule);
+                if (ruleKey != null) {
+                    parentAdvancementKey = ruleKey;
                 }
-                condType = rule.condition().type();
-                at = rule.condition().at();
-                seconds = rule.condition().seconds();
-                break;
             }
+            condType = rule.condition().type();
+            at = rule.condition().at();
+            seconds = rule.condition().seconds();
         }
 
         String descriptionTemplate = "Progress to unlock usage.";
@@ -420,10 +262,7 @@ public class ItemAdvancementManager implements de.thecoolcraft11.itemProgression
         String keyStr = plugin.getName().toLowerCase(Locale.ROOT) + ":lock_" + matKey;
         registry.register(keyStr, json);
         itemKeys.put(mat, NamespacedKey.fromString(keyStr));
-    }
-
-    private void registerSingleItemAdvancementWithParent(Material mat, String parentKey) {
-        registerSingleItemAdvancement(mat, parentKey);
+        return keyStr;
     }
 
     private void registerDimensionRuleAdvancements() {
@@ -647,55 +486,100 @@ public class ItemAdvancementManager implements de.thecoolcraft11.itemProgression
     }
 
     private String ruleHashKey(LockConfig.LockRule rule) {
-        return Integer.toHexString(rule.hashCode());
+        StringBuilder content = new StringBuilder(rule.condition().type().name());
+        for (Pattern pattern : rule.itemPatterns()) {
+            content.append('|').append(pattern.pattern());
+        }
+        String key = Integer.toHexString(content.toString().hashCode());
+        String unique = key;
+        for (int i = 2; ruleAdvancementKeys.containsValue(plugin.getName().toLowerCase(Locale.ROOT) + ":rule_" + unique); i++) {
+            unique = key + "_" + i;
+        }
+        return unique;
     }
 
     public void grantRootAndRules(Player p) {
-        org.bukkit.advancement.Advancement rootAdv = Bukkit.getAdvancement(Objects.requireNonNull(NamespacedKey.fromString(tabKey)));
-        if (rootAdv != null) {
-            p.getAdvancementProgress(rootAdv).awardCriteria("root");
+        Handles resolved = handles();
+        if (resolved.root() != null) {
+            p.getAdvancementProgress(resolved.root()).awardCriteria("root");
         }
 
-        for (String ruleKey : ruleAdvancementKeys.values()) {
-            org.bukkit.advancement.Advancement ruleAdv = Bukkit.getAdvancement(Objects.requireNonNull(NamespacedKey.fromString(ruleKey)));
-            if (ruleAdv != null) {
-                p.getAdvancementProgress(ruleAdv).awardCriteria("rule_unlock");
-            }
+        for (Advancement ruleAdv : resolved.rules()) {
+            p.getAdvancementProgress(ruleAdv).awardCriteria("rule_unlock");
         }
 
-        for (String dimRuleKey : dimensionRuleAdvancementKeys.values()) {
-            org.bukkit.advancement.Advancement dimRuleAdv = Bukkit.getAdvancement(Objects.requireNonNull(NamespacedKey.fromString(dimRuleKey)));
-            if (dimRuleAdv != null) {
-                p.getAdvancementProgress(dimRuleAdv).awardCriteria("dim_rule_unlock");
-            }
+        for (Advancement dimRuleAdv : resolved.dimensionRules()) {
+            p.getAdvancementProgress(dimRuleAdv).awardCriteria("dim_rule_unlock");
         }
 
 
-        for (String dummyKey : dummyAdvancementKeys) {
-            org.bukkit.advancement.Advancement dummyAdv = Bukkit.getAdvancement(Objects.requireNonNull(NamespacedKey.fromString(dummyKey)));
-            if (dummyAdv != null) {
-                p.getAdvancementProgress(dummyAdv).awardCriteria("dummy");
-            }
+        for (Advancement dummyAdv : resolved.dummies()) {
+            p.getAdvancementProgress(dummyAdv).awardCriteria("dummy");
         }
     }
 
     @Override
     public void grantIfUnlocked(Player p, Material mat) {
-        NamespacedKey key = itemKeys.get(mat);
-        if (key == null) return;
-        org.bukkit.advancement.Advancement adv = Bukkit.getAdvancement(key);
+        Advancement adv = handles().items()[mat.ordinal()];
         if (adv == null) return;
         p.getAdvancementProgress(adv).awardCriteria("lock_done");
     }
 
+    @Override
+    public void seedGranted(Player p, long[] granted) {
+        Arrays.fill(granted, -1L);
+        Advancement[] items = handles().items();
+        for (int index = 0; index < items.length; index++) {
+            if (items[index] == null || p.getAdvancementProgress(items[index]).isDone()) continue;
+            granted[index >>> 6] &= ~(1L << index);
+        }
+    }
+
     public void grantDimensionIfUnlocked(Player p, World.Environment dim) {
-        NamespacedKey key = dimensionKeys.get(dim);
-        if (key == null) return;
-        org.bukkit.advancement.Advancement adv = Bukkit.getAdvancement(key);
+        Advancement adv = handles().dimensions()[dim.ordinal()];
         if (adv == null) return;
         p.getAdvancementProgress(adv).awardCriteria("dim_unlock");
     }
 
+    public void invalidateHandles() {
+        registry.invalidate();
+    }
+
+    private Handles handles() {
+        Handles current = handles;
+        int generation = registry.generation();
+        if (current != null && current.generation() == generation) return current;
+
+        Advancement[] items = new Advancement[Material.values().length];
+        itemKeys.forEach((mat, key) -> items[mat.ordinal()] = Bukkit.getAdvancement(key));
+        Advancement[] dimensions = new Advancement[World.Environment.values().length];
+        dimensionKeys.forEach((dim, key) -> dimensions[dim.ordinal()] = Bukkit.getAdvancement(key));
+        NamespacedKey rootKey = NamespacedKey.fromString(tabKey);
+        Handles resolved = new Handles(generation,
+                rootKey == null ? null : Bukkit.getAdvancement(rootKey),
+                resolve(ruleAdvancementKeys.values()),
+                resolve(dimensionRuleAdvancementKeys.values()),
+                resolve(dummyAdvancementKeys),
+                items,
+                dimensions);
+        handles = resolved;
+        return resolved;
+    }
+
+    private static Advancement[] resolve(Collection<String> keys) {
+        List<Advancement> resolved = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            NamespacedKey namespacedKey = NamespacedKey.fromString(key);
+            Advancement adv = namespacedKey == null ? null : Bukkit.getAdvancement(namespacedKey);
+            if (adv != null) resolved.add(adv);
+        }
+        return resolved.toArray(new Advancement[0]);
+    }
+
+    private record Handles(int generation, Advancement root, Advancement[] rules, Advancement[] dimensionRules,
+                           Advancement[] dummies, Advancement[] items, Advancement[] dimensions) {
+    }
+
     private record RuleWithTime(LockConfig.LockRule rule, long unlockTime) {
     }
 
@@ -0,0 +1,105 @@
+package de.thecoolcraft11.itemProgressions.advancement;
+
+import de.thecoolcraft11.itemProgressions.config.LockConfig;
+import org.bukkit.Material;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+final class ItemLayout {
+    enum Mode {LINEAR, COLUMNS, SQUARE, AUTO}
+
+    interface Sink {
+        String item(Material mat, String parentKey);
+
+        String divider(String parentKey);
+
+        void describe(LockConfig.LockRule rule, String shape, int total);
+    }
+
+    private final List<LockConfig.LockRule> rules;
+    private final Material[] items;
+    private final int[] start;
+
+    private ItemLayout(List<LockConfig.LockRule> rules, Material[] items, int[] start) {
+        this.rules = rules;
+        this.items = items;
+        this.start = start;
+    }
+
+    static ItemLayout partition(LockConfig config, Collection<Material> materials) {
+        List<LockConfig.LockRule> rules = config.rules;
+        Map<LockConfig.LockRule, Integer> index = new IdentityHashMap<>();
+        for (int i = 0; i < rules.size(); i++) index.put(rules.get(i), i);
+
+        int[] owner = new int[materials.size()];
+        Material[] ordered = materials.toArray(new Material[0]);
+        int[] start = new int[rules.size() + 1];
+        for (int i = 0; i < ordered.length; i++) {
+            List<LockConfig.LockRule> matching = config.rulesFor(ordered[i]);
+            owner[i] = matching.isEmpty() ? -1 : index.get(matching.getFirst());
+            if (owner[i] >= 0) start[owner[i] + 1]++;
+        }
+        for (int r = 0; r < rules.size(); r++) start[r + 1] += start[r];
+
+        Material[] items = new Material[start[rules.size()]];
+        int[] next = start.clone();
+        for (int i = 0; i < ordered.length; i++) {
+            if (owner[i] >= 0) items[next[owner[i]]++] = ordered[i];
+        }
+        return new ItemLayout(rules, items, start);
+    }
+
+    void place(Mode mode, int gridWidth, Map<LockConfig.LockRule, String> ruleKeys, String fallbackKey, Sink sink) {
+        for (int r = 0; r < rules.size(); r++) {
+            int from = start[r];
+            int total = start[r + 1] - from;
+            if (total == 0) continue;
+
+            LockConfig.LockRule rule = rules.get(r);
+            String ruleKey = ruleKeys.get(rule);
+            if (mode == Mode.LINEAR) {
+                String parent = ruleKey != null ? ruleKey : fallbackKey;
+                for (int i = from; i < from + total; i++) sink.item(items[i], parent);
+                continue;
+            }
+            if (ruleKey == null) continue;
+
+            switch (mode) {
+                case COLUMNS -> {
+                    sink.describe(rule, "column grid", total);
+                    chain(from, total, ruleKey, sink);
+                }
+                case AUTO -> {
+                    int width = Math.max(1, (int) Math.ceil(Math.sqrt(total)));
+                    int rows = (total + width - 1) / width;
+                    sink.describe(rule, "auto grid (" + width + "x" + rows + ")", total);
+                    for (int row = 0; row < rows; row++) {
+                        int rowStart = row * width;
+                        chain(from + rowStart, Math.min(width, total - rowStart), ruleKey, sink);
+                    }
+                }
+                case SQUARE -> {
+                    int height = (total + gridWidth - 1) / gridWidth;
+                    sink.describe(rule, gridWidth + "x" + height + " square grid", total);
+                    String parent = ruleKey;
+                    for (int col = 0; col < gridWidth && col * height < total; col++) {
+                        parent = chain(from + col * height, Math.min(height, total - col * height), parent, sink);
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+    }
+
+    private String chain(int from, int count, String parentKey, Sink sink) {
+        String previous = parentKey;
+        for (int i = from; i < from + count; i++) {
+            previous = sink.item(items[i], previous);
+        }
+        return sink.divider(previous);
+    }
+}
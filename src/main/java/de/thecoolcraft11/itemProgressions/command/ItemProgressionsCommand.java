@@ -0,0 +1,123 @@
+package de.thecoolcraft11.itemProgressions.command;
+
+import de.thecoolcraft11.itemProgressions.ItemProgressions;
+import de.thecoolcraft11.itemProgressions.listener.LockListeners;
+import de.thecoolcraft11.itemProgressions.scheduler.TaskScheduler;
+import de.thecoolcraft11.itemProgressions.service.PlaytimeStore;
+import de.thecoolcraft11.itemProgressions.service.TimeTrackerService;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.Bukkit;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabExecutor;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Locale;
+
+public class ItemProgressionsCommand implements TabExecutor {
+    private static final List<String> SUBCOMMANDS = List.of("status", "recalc", "migrate");
+    private static final List<String> STORAGE_TYPES = List.of("yaml", "sqlite");
+    private static final int PROJECTED_PLAYERS = 400_000;
+
+    private final LockListeners listeners;
+    private final TimeTrackerService timeService;
+    private final TaskScheduler scheduler;
+
+    public ItemProgressionsCommand(LockListeners listeners, TimeTrackerService timeService, TaskScheduler scheduler) {
+        this.listeners = listeners;
+        this.timeService = timeService;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, String @NotNull [] args) {
+        String sub = args.length == 0 ? "status" : args[0].toLowerCase(Locale.ROOT);
+        switch (sub) {
+            case "status" -> sendStatus(sender);
+            case "recalc" -> recalc(sender, args);
+            case "migrate" -> migrate(sender, args);
+            default -> {
+                sender.sendMessage(Component.text("Usage: /" + label + " <" + String.join("|", SUBCOMMANDS) + ">", NamedTextColor.RED));
+                return true;
+            }
+        }
+        return true;
+    }
+
+    private void sendStatus(CommandSender sender) {
+        sender.sendMessage(Component.text("ItemProgressions status", NamedTextColor.GOLD));
+        line(sender, "Scheduled players", String.valueOf(listeners.scheduledPlayers()));
+        line(sender, "Decoration backlog", listeners.sweepBacklog() + " players, " + listeners.sweepLagMillis() + " ms behind");
+        line(sender, "Time storage", timeService.storageName() + (timeService.isLazy() ? " (lazy, " + timeService.residentCount() + " resident, " + timeService.offlineCacheCount() + " cached offline)" : ""));
+        PlaytimeStore.MemoryReport store = timeService.memoryReport();
+        PlaytimeStore.MemoryReport projected = PlaytimeStore.projectedReport(PROJECTED_PLAYERS);
+        line(sender, "Playtime store", store.entries() + " players, " + kib(store.tableBytes()) + " KiB (boxed map ~" + kib(store.boxedMapBytes()) + " KiB)");
+        line(sender, "Unsaved players", timeService.dirtyCount() + " (journal " + kib(timeService.journalBytes()) + " KiB)");
+        line(sender, "Projected for " + PROJECTED_PLAYERS, kib(projected.tableBytes()) + " KiB (boxed map ~" + kib(projected.boxedMapBytes()) + " KiB)");
+        line(sender, "Lock sessions", listeners.sessionCount() + " (~" + kib(listeners.sessionFootprintBytes()) + " KiB)");
+    }
+
+    private static long kib(long bytes) {
+        return (bytes + 1023) / 1024;
+    }
+
+    private void recalc(CommandSender sender, String[] args) {
+        if (args.length < 2) {
+            listeners.recalculateBypasses();
+            sender.sendMessage(Component.text("Recalculating bypass permissions for all online players", NamedTextColor.GREEN));
+            return;
+        }
+        Player target = Bukkit.getPlayerExact(args[1]);
+        if (target == null) {
+            sender.sendMessage(Component.text("Player " + args[1] + " is not online", NamedTextColor.RED));
+            return;
+        }
+        listeners.recalculateBypass(target);
+        sender.sendMessage(Component.text("Recalculating bypass permissions for " + target.getName(), NamedTextColor.GREEN));
+    }
+
+    private void line(CommandSender sender, String key, String value) {
+        sender.sendMessage(Component.text(key + ": ", NamedTextColor.GRAY).append(Component.text(value, NamedTextColor.WHITE)));
+    }
+
+    private void migrate(CommandSender sender, String[] args) {
+        if (args.length < 2 || !STORAGE_TYPES.contains(args[1].toLowerCase(Locale.ROOT))) {
+            sender.sendMessage(Component.text("Usage: /itemprogressions migrate <" + String.join("|", STORAGE_TYPES) + ">", NamedTextColor.RED));
+            return;
+        }
+        String target = args[1].toLowerCase(Locale.ROOT);
+        ItemProgressions plugin = ItemProgressions.getPlugin(ItemProgressions.class);
+        sender.sendMessage(Component.text("Migrating time data from " + timeService.storageName() + " to " + target + "...", NamedTextColor.YELLOW));
+        timeService.migrate(target).whenComplete((count, error) -> scheduler.run(() -> {
+            if (error != null) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                sender.sendMessage(Component.text("Migration failed: " + cause.getMessage(), NamedTextColor.RED));
+                return;
+            }
+            plugin.getConfig().set("storage", target);
+            plugin.saveConfig();
+            sender.sendMessage(Component.text("Migrated " + count + " players to " + target + "; storage is now " + target, NamedTextColor.GREEN));
+        }));
+    }
+
+    @Override
+    public List<String> onTabComplete(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, String @NotNull [] args) {
+        if (args.length == 2 && args[0].equalsIgnoreCase("recalc")) {
+            String prefix = args[1].toLowerCase(Locale.ROOT);
+            return Bukkit.getOnlinePlayers().stream()
+                    .map(Player::getName)
+                    .filter(name -> name.toLowerCase(Locale.ROOT).startsWith(prefix))
+                    .toList();
+        }
+        if (args.length == 2 && args[0].equalsIgnoreCase("migrate")) {
+            String prefix = args[1].toLowerCase(Locale.ROOT);
+            return STORAGE_TYPES.stream().filter(s -> s.startsWith(prefix)).toList();
+        }
+        if (args.length != 1) return List.of();
+        String prefix = args[0].toLowerCase(Locale.ROOT);
+        return SUBCOMMANDS.stream().filter(s -> s.startsWith(prefix)).toList();
+    }
+}
@@ -7,9 +7,12 @@ import org.bukkit.configuration.file.FileConfiguration;
 import java.time.Instant;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 public class LockConfig {
@@ -18,7 +21,7 @@ public class LockConfig {
     }
 
     public record LockRule(List<Pattern> itemPatterns, UnlockCondition condition, String displayName, String iconId,
-                           String description) {
+                           String description, String id) {
         public boolean matches(Material mat) {
             String name = mat.name();
             for (Pattern p : itemPatterns) {
@@ -28,6 +31,11 @@ public class LockConfig {
         }
     }
 
+    public enum DecorationMode {ITEM, PACKET}
+
+    public record CountdownStep(long aboveSeconds, long resolutionSeconds) {
+    }
+
     public record DimensionLockRule(World.Environment dimension, UnlockCondition condition, String displayName,
                                     String iconId, String description) {
     }
@@ -38,12 +46,49 @@ public class LockConfig {
     public final int messageCooldownSeconds;
     public final boolean allowBreaking;
     public final boolean allowDropping;
+    public final DecorationMode decorationMode;
+    public final List<CountdownStep> countdownSteps = new ArrayList<>();
+    public final long decorationBudgetMicros;
+    public final int bypassRefreshSeconds;
+    public final int saveIntervalSeconds;
+    public final boolean timeJournal;
+    public final String storage;
+    public final boolean lazyTimeLoading;
+    public final int evictAfterQuitSeconds;
+    public final int offlineCacheSize;
+    public final int shutdownSaveTimeoutSeconds;
+
+    private final List<LockRule>[] rulesByMaterial;
+    private final Set<Material> lockedMaterials = EnumSet.noneOf(Material.class);
 
     public LockConfig(FileConfiguration cfg) {
         this.blockedMessage = cfg.getString("message", "&cYou can't use %item% yet. Unlocks in %remaining%.");
         this.messageCooldownSeconds = cfg.getInt("messageCooldownSeconds", 1);
         this.allowBreaking = cfg.getBoolean("allowBreaking", false);
         this.allowDropping = cfg.getBoolean("allowDropping", false);
+        this.decorationMode = "packet".equalsIgnoreCase(cfg.getString("decorationMode", "item")) ? DecorationMode.PACKET : DecorationMode.ITEM;
+
+        this.decorationBudgetMicros = Math.max(1L, cfg.getLong("decorationBudgetMicros", 1000L));
+        this.bypassRefreshSeconds = Math.max(0, cfg.getInt("bypassRefreshSeconds", 60));
+        this.saveIntervalSeconds = Math.max(0, cfg.getInt("saveIntervalSeconds", 300));
+        this.timeJournal = cfg.getBoolean("timeJournal", true);
+        this.storage = cfg.getString("storage", "yaml");
+        this.lazyTimeLoading = cfg.getBoolean("lazyTimeLoading", false);
+        this.evictAfterQuitSeconds = Math.max(0, cfg.getInt("evictAfterQuitSeconds", 300));
+        this.offlineCacheSize = Math.max(0, cfg.getInt("offlineCacheSize", 1024));
+        this.shutdownSaveTimeoutSeconds = Math.max(1, cfg.getInt("shutdownSaveTimeoutSeconds", 10));
+
+        if (cfg.contains("countdownGranularity")) {
+            for (Map<?, ?> raw : cfg.getMapList("countdownGranularity")) {
+                long above = asLong(raw.get("above"), -1L);
+                long resolution = asLong(raw.get("resolution"), 0L);
+                if (above < 0 || resolution <= 0) continue;
+                countdownSteps.add(new CountdownStep(above, resolution));
+            }
+        } else {
+            countdownSteps.add(new CountdownStep(86400L, 3600L));
+            countdownSteps.add(new CountdownStep(3600L, 60L));
+        }
 
         List<Map<?, ?>> list = cfg.getMapList("locks");
         for (Map<?, ?> raw : list) {
@@ -92,8 +137,10 @@ public class LockConfig {
             String displayName = strOrNull(unlock.get("name"));
             String description = strOrNull(unlock.get("description"));
 
+            String id = ruleId(strOrNull(raw.get("id")), displayName, rules.size() + 1);
+
             UnlockCondition condition = new UnlockCondition(type, seconds, at);
-            rules.add(new LockRule(patterns, condition, displayName, iconId, description));
+            rules.add(new LockRule(patterns, condition, displayName, iconId, description, id));
         }
 
 
@@ -146,6 +193,48 @@ public class LockConfig {
             UnlockCondition condition = new UnlockCondition(type, seconds, at);
             dimensionLocks.add(new DimensionLockRule(env, condition, displayName, iconId, description));
         }
+
+        this.rulesByMaterial = indexRules(rules, lockedMaterials);
+    }
+
+    public List<LockRule> rulesFor(Material mat) {
+        return rulesByMaterial[mat.ordinal()];
+    }
+
+    public boolean hasRules(Material mat) {
+        return !rulesByMaterial[mat.ordinal()].isEmpty();
+    }
+
+    public Set<Material> lockedMaterials() {
+        return Collections.unmodifiableSet(lockedMaterials);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static List<LockRule>[] indexRules(List<LockRule> rules, Set<Material> locked) {
+        Material[] materials = Material.values();
+        List<LockRule>[] index = new List[materials.length];
+        for (Material mat : materials) {
+            List<LockRule> matching = null;
+            for (LockRule rule : rules) {
+                if (!rule.matches(mat)) continue;
+                if (matching == null) matching = new ArrayList<>(1);
+                matching.add(rule);
+            }
+            if (matching == null) {
+                index[mat.ordinal()] = List.of();
+            } else {
+                index[mat.ordinal()] = List.copyOf(matching);
+                locked.add(mat);
+            }
+        }
+        return index;
+    }
+
+    private static String ruleId(String explicit, String displayName, int position) {
+        String source = explicit != null ? explicit : displayName;
+        if (source == null) return "rule" + position;
+        String id = source.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9_-]+", "_").replaceAll("^_+|_+$", "");
+        return id.isEmpty() ? "rule" + position : id;
     }
 
     private static long asLong(Object o, long def) {
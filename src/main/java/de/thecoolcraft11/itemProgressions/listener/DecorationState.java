@@ -0,0 +1,52 @@
+package de.thecoolcraft11.itemProgressions.listener;
+
+import org.bukkit.Material;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+final class DecorationState {
+    private Material[] types = new Material[0];
+    private String[] rendered = new String[0];
+    private boolean dirty = true;
+
+    void ensureSize(int size) {
+        if (types.length == size) return;
+        types = Arrays.copyOf(types, size);
+        rendered = Arrays.copyOf(rendered, size);
+        dirty = true;
+    }
+
+    boolean isCurrent(int slot, Material type, String text) {
+        return !dirty && isRendered(slot, type, text);
+    }
+
+    boolean isRendered(int slot, Material type, String text) {
+        return types[slot] == type && Objects.equals(rendered[slot], text);
+    }
+
+    boolean recordedAs(int slot, Material type) {
+        return slot < types.length && types[slot] == type;
+    }
+
+    boolean hasText(int slot) {
+        return rendered[slot] != null;
+    }
+
+    void record(int slot, Material type, String text) {
+        types[slot] = type;
+        rendered[slot] = text;
+    }
+
+    long footprintBytes() {
+        return 24L + 16L + types.length * 4L + 16L + rendered.length * 4L;
+    }
+
+    void markDirty() {
+        dirty = true;
+    }
+
+    void markClean() {
+        dirty = false;
+    }
+}
@@ -1,13 +1,16 @@
 package de.thecoolcraft11.itemProgressions.listener;
 
+import de.thecoolcraft11.itemProgressions.logic.CountdownFormat;
 import de.thecoolcraft11.itemProgressions.logic.LockEvaluator;
+import de.thecoolcraft11.itemProgressions.logic.UnlockTimeline;
+import de.thecoolcraft11.itemProgressions.packet.ItemPacketHook;
+import de.thecoolcraft11.itemProgressions.scheduler.TaskScheduler;
+import io.papermc.paper.event.server.ServerResourcesReloadedEvent;
 import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.format.NamedTextColor;
-import net.kyori.adventure.text.format.TextDecoration;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
 import org.bukkit.Material;
-import org.bukkit.NamespacedKey;
 import org.bukkit.World;
 import org.bukkit.entity.HumanEntity;
 import org.bukkit.entity.Item;
@@ -21,6 +24,7 @@ import org.bukkit.event.block.BlockDropItemEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.entity.EntityPickupItemEvent;
 import org.bukkit.event.entity.EntityResurrectEvent;
 import org.bukkit.event.entity.EntityShootBowEvent;
 import org.bukkit.event.inventory.*;
@@ -31,54 +35,141 @@ import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class LockListeners implements Listener {
+    private static final int INVENTORY_CHECK_SECONDS = 5;
+
     private final LockEvaluator evaluator;
     private final String messageTemplate;
     private final int messageCooldownSeconds;
-    private final Map<UUID, Long> lastMsg = new HashMap<>();
-
-    private final Map<UUID, Map<Material, Long>> cooldownExpiry = new HashMap<>();
-
     private final boolean allowBreaking;
     private final boolean allowDropping;
 
     private final AdvancementGranting advancementGranting;
+    private final ItemPacketHook packetHook;
+    private final CountdownFormat countdown;
+
+    private final UnlockTimeline timeline;
+    private final Map<UUID, PlayerLockSession> sessions = new ConcurrentHashMap<>();
+    private final LinkedHashMap<UUID, Long> pending = new LinkedHashMap<>();
+    private final long sweepBudgetNanos;
+    private final TaskScheduler scheduler;
+    private int inventoryCheckCountdown = INVENTORY_CHECK_SECONDS;
 
     public interface AdvancementGranting {
         void grantIfUnlocked(Player p, Material mat);
+
+        void seedGranted(Player p, long[] granted);
     }
 
-    public LockListeners(LockEvaluator evaluator, String messageTemplate, int messageCooldownSeconds, boolean allowBreaking, boolean allowDropping, AdvancementGranting advancementGranting) {
+    public LockListeners(LockEvaluator evaluator, String messageTemplate, int messageCooldownSeconds, boolean allowBreaking, boolean allowDropping, AdvancementGranting advancementGranting, ItemPacketHook packetHook, CountdownFormat countdown, long sweepBudgetMicros, TaskScheduler scheduler) {
         this.evaluator = evaluator;
         this.messageTemplate = messageTemplate;
         this.messageCooldownSeconds = messageCooldownSeconds;
         this.allowBreaking = allowBreaking;
         this.allowDropping = allowDropping;
         this.advancementGranting = advancementGranting;
+        this.packetHook = packetHook;
+        this.countdown = countdown;
+        this.sweepBudgetNanos = Math.max(1L, sweepBudgetMicros) * 1000L;
+        this.scheduler = scheduler;
+        this.timeline = new UnlockTimeline(evaluator);
+        if (packetHook != null) packetHook.install(this::renderForClient);
+
+        long now = System.currentTimeMillis();
+        timeline.scheduleGlobal(now);
+        for (Player p : Bukkit.getOnlinePlayers()) {
+            seedGrants(p, openSession(p));
+            timeline.schedule(p.getUniqueId(), now);
+        }
+    }
+
+    private PlayerLockSession openSession(Player p) {
+        UUID uuid = p.getUniqueId();
+        PlayerLockSession session = sessions.computeIfAbsent(uuid, k -> new PlayerLockSession(k, evaluator.openUnlockCache(k)));
+        if (session.bypass() == null) resolveBypass(p, session);
+        session.creative(p.getGameMode() == GameMode.CREATIVE);
+        return session;
+    }
+
+    private void seedGrants(Player p, PlayerLockSession session) {
+        if (advancementGranting != null) advancementGranting.seedGranted(p, session.granted());
+    }
+
+    private void closeSession(UUID uuid) {
+        sessions.remove(uuid);
+        timeline.remove(uuid);
+        synchronized (pending) {
+            pending.remove(uuid);
+        }
+        evaluator.forget(uuid);
+    }
+
+    private PlayerLockSession session(Player p) {
+        PlayerLockSession session = sessions.get(p.getUniqueId());
+        if (session != null) return session;
+        if (p.isOnline()) return openSession(p);
+        return new PlayerLockSession(p.getUniqueId(), evaluator.unlockCache(p.getUniqueId()));
+    }
+
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    public long sessionFootprintBytes() {
+        long bytes = 0L;
+        for (PlayerLockSession session : sessions.values()) {
+            bytes += session.footprintBytes();
+        }
+        return bytes;
     }
 
     private boolean hasBypass(Player p, Material mat) {
-        NamespacedKey key = mat.getKey();
-        String perm = "itemprogressions.bypass." + key.getKey().toLowerCase(Locale.ROOT);
-        return p.hasPermission(perm);
+        PlayerLockSession session = session(p);
+        PlayerBypass bypass = session.bypass();
+        return bypass != null ? bypass.has(mat) : PlayerBypass.check(p, evaluator.config(), mat);
+    }
+
+    private boolean resolveBypass(Player p, PlayerLockSession session) {
+        PlayerBypass bypass = PlayerBypass.resolve(p, evaluator.config());
+        PlayerBypass previous = session.replaceBypass(bypass);
+        if (previous == null || bypass.sameAs(previous)) return false;
+        session.decoration().markDirty();
+        return true;
+    }
+
+    public void recalculateBypasses() {
+        for (Player p : Bukkit.getOnlinePlayers()) {
+            recalculateBypass(p);
+        }
+    }
+
+    public void recalculateBypass(Player p) {
+        if (scheduler.isRegionThreaded()) {
+            scheduler.runForPlayer(p, () -> resolveBypassInPlace(p));
+        } else {
+            resolveBypassInPlace(p);
+        }
+    }
+
+    private void resolveBypassInPlace(Player p) {
+        PlayerLockSession session = sessions.get(p.getUniqueId());
+        if (session != null && resolveBypass(p, session)) enqueue(p.getUniqueId());
     }
 
     private boolean check(Player p, Material mat) {
         if (hasBypass(p, mat)) return false;
-        LockEvaluator.Result r = evaluator.canUse(p, mat);
-        if (!r.allowed()) {
-            maybeNotify(p, mat, r.remainingSeconds());
+        long remaining = evaluator.remainingSeconds(p, mat);
+        if (remaining > 0) {
+            maybeNotify(p, mat, remaining);
             return true;
         }
         return false;
     }
 
     private void maybeNotify(Player p, Material mat, long remaining) {
-        long now = System.currentTimeMillis();
-        long next = lastMsg.getOrDefault(p.getUniqueId(), 0L);
-        if (now < next) return;
-        lastMsg.put(p.getUniqueId(), now + messageCooldownSeconds * 1000L);
+        if (!session(p).tryNotify(System.currentTimeMillis(), messageCooldownSeconds * 1000L)) return;
         String msg = messageTemplate
                 .replace("%item%", mat.name())
                 .replace("%remaining%", LockEvaluator.humanDuration(remaining));
@@ -88,10 +179,7 @@ public class LockListeners implements Listener {
     }
 
     private void maybeNotify(Player p, World.Environment dimension, long remaining) {
-        long now = System.currentTimeMillis();
-        long next = lastMsg.getOrDefault(p.getUniqueId(), 0L);
-        if (now < next) return;
-        lastMsg.put(p.getUniqueId(), now + messageCooldownSeconds * 1000L);
+        if (!session(p).tryNotify(System.currentTimeMillis(), messageCooldownSeconds * 1000L)) return;
         String msg = messageTemplate
                 .replace("%item%", dimension.name())
                 .replace("%remaining%", LockEvaluator.humanDuration(remaining));
@@ -101,72 +189,70 @@ public class LockListeners implements Listener {
     }
 
 
-    private ItemStack decorateIfLocked(Player p, ItemStack stack) {
-        if (stack == null || stack.getType().isAir()) return stack;
-        boolean bypass = hasBypass(p, stack.getType());
-        LockEvaluator.Result r = bypass ? new LockEvaluator.Result(true, 0) : evaluator.canUse(p, stack.getType());
-        ItemMeta meta = stack.getItemMeta();
-        if (meta == null) return stack;
-        if (!r.allowed()) {
+    private long lockRemaining(Player p, Material type) {
+        if (type.isAir() || hasBypass(p, type)) return 0L;
+        return evaluator.remainingSeconds(p, type);
+    }
 
-            meta.setEnchantmentGlintOverride(true);
+    private ItemStack renderForClient(Player viewer, ItemStack outgoing) {
+        if (outgoing == null || outgoing.getType().isAir()) return null;
+        PlayerLockSession session = sessions.get(viewer.getUniqueId());
+        if (session == null || session.creative()) return null;
+        PlayerBypass bypass = session.bypass();
+        if (bypass == null || bypass.has(outgoing.getType())) return null;
+        long remaining = evaluator.peekRemainingSeconds(session.uuid(), session.unlockCache(), outgoing.getType());
+        if (remaining <= 0) return null;
+        String text = countdown.render(remaining);
+        ItemStack copy = outgoing.clone();
+        return applyDecoration(copy, text) ? copy : null;
+    }
 
-            Component loreLine = Component.text("Locked: unlocks in " + LockEvaluator.humanDuration(r.remainingSeconds()))
-                    .color(NamedTextColor.RED)
-                    .decoration(TextDecoration.ITALIC, false);
+    public void shutdown() {
+        if (packetHook != null) packetHook.uninstall();
+    }
 
-            List<Component> lore = meta.lore();
-            if (lore == null) lore = new ArrayList<>();
+    private boolean applyDecoration(ItemStack stack, String lockText) {
+        ItemMeta meta = stack.getItemMeta();
+        if (meta == null) return false;
+        List<Component> lore = meta.lore();
+        boolean hasLockLine = false;
+        if (lore != null && !lore.isEmpty()) {
+            String plainText = LegacyComponentSerializer.legacySection().serialize(lore.getFirst()).toLowerCase();
+            hasLockLine = plainText.contains("locked:");
+        }
 
-            boolean hasLockLine = false;
-            if (!lore.isEmpty()) {
-                String plainText = LegacyComponentSerializer.legacySection().serialize(lore.getFirst()).toLowerCase();
-                hasLockLine = plainText.contains("locked:");
-            }
+        if (lockText != null) {
+            Component loreLine = countdown.line(lockText);
+            boolean glint = Boolean.TRUE.equals(meta.getEnchantmentGlintOverride());
+            if (hasLockLine && glint && loreLine.equals(lore.getFirst())) return false;
 
+            meta.setEnchantmentGlintOverride(true);
+            if (lore == null) lore = new ArrayList<>();
             if (hasLockLine) {
                 lore.set(0, loreLine);
             } else {
                 lore.addFirst(loreLine);
             }
-
             meta.lore(lore);
-            stack.setItemMeta(meta);
         } else {
+            boolean clearGlint = Boolean.TRUE.equals(meta.getEnchantmentGlintOverride()) && meta.getEnchants().isEmpty();
+            if (!clearGlint && !hasLockLine) return false;
 
-            if (meta.hasEnchantmentGlintOverride() && meta.getEnchants().isEmpty()) {
+            if (clearGlint) {
                 meta.setEnchantmentGlintOverride(false);
             }
-
-
-            List<Component> lore = meta.lore();
-            if (lore != null && !lore.isEmpty()) {
-                String plainText = LegacyComponentSerializer.legacySection().serialize(lore.getFirst()).toLowerCase();
-                if (plainText.contains("locked:")) {
-                    lore.removeFirst();
-                    meta.lore(lore);
-                }
+            if (hasLockLine) {
+                lore.removeFirst();
+                meta.lore(lore);
             }
-            stack.setItemMeta(meta);
         }
-        return stack;
+        stack.setItemMeta(meta);
+        return true;
     }
 
 
-    private void updateCooldowns(Player p) {
-
-        Set<Material> mats = new HashSet<>();
-        PlayerInventory inv = p.getInventory();
-        for (ItemStack s : inv.getContents()) {
-            if (s != null && !s.getType().isAir()) mats.add(s.getType());
-        }
-        ItemStack[] armor = new ItemStack[]{inv.getHelmet(), inv.getChestplate(), inv.getLeggings(), inv.getBoots(), inv.getItemInOffHand()};
-        for (ItemStack s : armor) {
-            if (s != null && !s.getType().isAir()) mats.add(s.getType());
-        }
-
-        UUID uuid = p.getUniqueId();
-        Map<Material, Long> playerCooldowns = cooldownExpiry.computeIfAbsent(uuid, k -> new HashMap<>());
+    private void updateCooldowns(Player p, PlayerLockSession session, Set<Material> mats) {
+        Map<Material, Long> playerCooldowns = session.cooldownExpiry();
         long currentTime = System.currentTimeMillis();
 
         for (Material mat : mats) {
@@ -175,9 +261,8 @@ public class LockListeners implements Listener {
                 playerCooldowns.remove(mat);
                 continue;
             }
-            LockEvaluator.Result r = evaluator.canUse(p, mat);
-            if (!r.allowed()) {
-                long seconds = Math.max(0L, r.remainingSeconds());
+            long seconds = evaluator.remainingSeconds(p, mat);
+            if (seconds > 0) {
                 long expiryTime = currentTime + (seconds * 1000L);
 
 
@@ -192,7 +277,7 @@ public class LockListeners implements Listener {
 
                 p.setCooldown(mat, 0);
                 playerCooldowns.remove(mat);
-                if (advancementGranting != null) {
+                if (advancementGranting != null && session.markGranted(mat)) {
                     advancementGranting.grantIfUnlocked(p, mat);
                 }
             }
@@ -203,40 +288,231 @@ public class LockListeners implements Listener {
     }
 
     public void tickDecorate() {
+        long now = System.currentTimeMillis();
+        timeline.poll(now, this::enqueue, () -> refreshAll(now));
+        if (--inventoryCheckCountdown <= 0) {
+            inventoryCheckCountdown = INVENTORY_CHECK_SECONDS;
+            checkInventories();
+        }
+    }
+
+    private void checkInventories() {
         for (Player p : Bukkit.getOnlinePlayers()) {
-            decorateInventory(p);
-            updateCooldowns(p);
+            if (scheduler.isRegionThreaded()) {
+                scheduler.runForPlayer(p, () -> checkInventory(p));
+            } else {
+                checkInventory(p);
+            }
         }
     }
 
-    private void decorateInventory(Player p) {
+    private void checkInventory(Player p) {
+        PlayerLockSession session = sessions.get(p.getUniqueId());
+        if (session == null) return;
         PlayerInventory inv = p.getInventory();
+        DecorationState state = session.decoration();
+        for (int slot = 0, size = inv.getSize(); slot < size; slot++) {
+            ItemStack stack = inv.getItem(slot);
+            if (!state.recordedAs(slot, stack == null ? Material.AIR : stack.getType())) {
+                requestRefresh(p);
+                return;
+            }
+        }
+    }
+
+    public void sweep() {
+        if (scheduler.isRegionThreaded()) {
+            dispatchPending();
+            return;
+        }
+        long deadline = System.nanoTime() + sweepBudgetNanos;
+        UUID uuid;
+        while ((uuid = nextPending()) != null) {
+            refreshPlayer(uuid);
+            if (System.nanoTime() >= deadline) break;
+        }
+    }
+
+    private void dispatchPending() {
+        UUID[] batch;
+        synchronized (pending) {
+            if (pending.isEmpty()) return;
+            batch = pending.keySet().toArray(new UUID[0]);
+            pending.clear();
+        }
+        for (UUID uuid : batch) {
+            Player p = Bukkit.getPlayer(uuid);
+            if (p != null) scheduler.runForPlayer(p, () -> refresh(p));
+        }
+    }
+
+    private UUID nextPending() {
+        synchronized (pending) {
+            if (pending.isEmpty()) return null;
+            Iterator<UUID> it = pending.keySet().iterator();
+            UUID uuid = it.next();
+            it.remove();
+            return uuid;
+        }
+    }
+
+    public int sweepBacklog() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
 
-        ItemStack[] contents = inv.getContents();
-        for (int i = 0; i < contents.length; i++) {
-            ItemStack it = contents[i];
-            contents[i] = decorateIfLocked(p, it);
+    public long sweepLagMillis() {
+        synchronized (pending) {
+            if (pending.isEmpty()) return 0L;
+            return Math.max(0L, (System.nanoTime() - pending.firstEntry().getValue()) / 1_000_000L);
         }
-        inv.setContents(contents);
+    }
 
-        inv.setHelmet(decorateIfLocked(p, inv.getHelmet()));
-        inv.setChestplate(decorateIfLocked(p, inv.getChestplate()));
-        inv.setLeggings(decorateIfLocked(p, inv.getLeggings()));
-        inv.setBoots(decorateIfLocked(p, inv.getBoots()));
-        inv.setItemInOffHand(decorateIfLocked(p, inv.getItemInOffHand()));
+    public int scheduledPlayers() {
+        return timeline.size();
+    }
+
+    private void enqueue(UUID uuid) {
+        synchronized (pending) {
+            pending.putIfAbsent(uuid, System.nanoTime());
+        }
+    }
+
+    private void refreshAll(long now) {
+        for (Player p : Bukkit.getOnlinePlayers()) {
+            timeline.schedule(p.getUniqueId(), now);
+        }
+        timeline.scheduleGlobal(now);
+    }
+
+    private void refreshPlayer(UUID uuid) {
+        Player p = Bukkit.getPlayer(uuid);
+        if (p != null) refresh(p);
+    }
+
+    private void refresh(Player p) {
+        PlayerLockSession session = session(p);
+        if (session.bypass() == null) resolveBypass(p, session);
+
+        Set<Material> held = EnumSet.noneOf(Material.class);
+        long nextTextChange = decorateInventory(p, session, held);
+        updateCooldowns(p, session, held);
+
+        long now = System.currentTimeMillis();
+        timeline.schedulePlayer(p.getUniqueId(), now);
+        if (nextTextChange != Long.MAX_VALUE) {
+            timeline.schedule(p.getUniqueId(), now + nextTextChange * 1000L);
+        }
+    }
+
+    private void requestRefresh(HumanEntity entity) {
+        if (entity instanceof Player p) {
+            PlayerLockSession session = sessions.get(p.getUniqueId());
+            if (session == null) return;
+            session.decoration().markDirty();
+            timeline.schedule(p.getUniqueId(), System.currentTimeMillis());
+        }
+    }
+
+    private long decorateInventory(Player p, PlayerLockSession session, Set<Material> held) {
+        PlayerInventory inv = p.getInventory();
+        DecorationState state = session.decoration();
+        int size = inv.getSize();
+        state.ensureSize(size);
+
+        long nextTextChange = Long.MAX_VALUE;
+        boolean resend = false;
+        for (int slot = 0; slot < size; slot++) {
+            ItemStack stack = inv.getItem(slot);
+            Material type = stack == null ? Material.AIR : stack.getType();
+            if (!type.isAir()) held.add(type);
+            long remaining = lockRemaining(p, type);
+            String text = null;
+            if (remaining > 0) {
+                text = countdown.render(remaining);
+                nextTextChange = Math.min(nextTextChange, countdown.secondsUntilChange(remaining));
+            }
+            if (state.isCurrent(slot, type, text)) continue;
+
+            String stored = packetHook == null ? text : null;
+            if (stack != null && !type.isAir() && applyDecoration(stack, stored)) {
+                inv.setItem(slot, stack);
+            }
+            if (packetHook != null && !state.isRendered(slot, type, text) && (text != null || state.hasText(slot))) {
+                resend = true;
+            }
+            state.record(slot, type, text);
+        }
+        state.markClean();
+        if (resend) packetHook.resend(p);
+        return nextTextChange;
     }
 
     @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
     public void onJoin(PlayerJoinEvent e) {
         Player p = e.getPlayer();
-        decorateInventory(p);
-        updateCooldowns(p);
+        seedGrants(p, openSession(p));
+        enqueue(p.getUniqueId());
 
         if (advancementGranting instanceof de.thecoolcraft11.itemProgressions.advancement.ItemAdvancementManager manager) {
             manager.grantRootAndRules(p);
         }
     }
 
+    @EventHandler
+    public void onQuit(PlayerQuitEvent e) {
+        closeSession(e.getPlayer().getUniqueId());
+    }
+
+    @EventHandler
+    public void onResourcesReloaded(ServerResourcesReloadedEvent e) {
+        if (advancementGranting instanceof de.thecoolcraft11.itemProgressions.advancement.ItemAdvancementManager manager) {
+            manager.invalidateHandles();
+        }
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onGameModeChange(PlayerGameModeChangeEvent e) {
+        PlayerLockSession session = sessions.get(e.getPlayer().getUniqueId());
+        if (session != null) session.creative(e.getNewGameMode() == GameMode.CREATIVE);
+    }
+
+    @EventHandler
+    public void onWorldChange(PlayerChangedWorldEvent e) {
+        recalculateBypass(e.getPlayer());
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onInventoryChanged(InventoryClickEvent e) {
+        requestRefresh(e.getWhoClicked());
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onInventoryDragged(InventoryDragEvent e) {
+        requestRefresh(e.getWhoClicked());
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onPickup(EntityPickupItemEvent e) {
+        if (e.getEntity() instanceof Player p) requestRefresh(p);
+    }
+
+    @EventHandler
+    public void onInventoryClose(InventoryCloseEvent e) {
+        requestRefresh(e.getPlayer());
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onHandsSwapped(PlayerSwapHandItemsEvent e) {
+        requestRefresh(e.getPlayer());
+    }
+
+    @EventHandler
+    public void onRespawn(PlayerRespawnEvent e) {
+        requestRefresh(e.getPlayer());
+    }
+
     @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGHEST)
     public void onTeleport(PlayerTeleportEvent e) {
         Player p = e.getPlayer();
@@ -245,10 +521,10 @@ public class LockListeners implements Listener {
 
         if (fromWorld != null && toWorld != null && !fromWorld.equals(toWorld)) {
             World.Environment toEnv = toWorld.getEnvironment();
-            LockEvaluator.Result r = evaluator.canEnterDimension(p, toEnv);
-            if (!r.allowed()) {
+            long remaining = evaluator.remainingSeconds(p, toEnv);
+            if (remaining > 0) {
                 e.setCancelled(true);
-                maybeNotify(p, toEnv, r.remainingSeconds());
+                maybeNotify(p, toEnv, remaining);
             } else {
 
                 if (advancementGranting instanceof de.thecoolcraft11.itemProgressions.advancement.ItemAdvancementManager manager) {
@@ -313,7 +589,7 @@ public class LockListeners implements Listener {
         for (HumanEntity viewer : e.getViewers()) {
             if (viewer instanceof Player p) {
                 if (hasBypass(p, result.getType())) continue;
-                if (!evaluator.canUse(p, result.getType()).allowed()) {
+                if (evaluator.remainingSeconds(p, result.getType()) > 0) {
                     e.getInventory().setResult(new ItemStack(Material.AIR));
                     return;
                 }
@@ -399,7 +675,7 @@ public class LockListeners implements Listener {
         for (HumanEntity viewer : e.getViewers()) {
             if (viewer instanceof Player p) {
                 if (hasBypass(p, result.getType())) continue;
-                if (!evaluator.canUse(p, result.getType()).allowed()) {
+                if (evaluator.remainingSeconds(p, result.getType()) > 0) {
                     e.setResult(new ItemStack(Material.AIR));
                     return;
                 }
@@ -414,7 +690,7 @@ public class LockListeners implements Listener {
         for (HumanEntity viewer : e.getViewers()) {
             if (viewer instanceof Player p) {
                 if (hasBypass(p, result.getType())) continue;
-                if (!evaluator.canUse(p, result.getType()).allowed()) {
+                if (evaluator.remainingSeconds(p, result.getType()) > 0) {
                     e.setResult(new ItemStack(Material.AIR));
                     return;
                 }
@@ -0,0 +1,67 @@
+package de.thecoolcraft11.itemProgressions.listener;
+
+import de.thecoolcraft11.itemProgressions.config.LockConfig;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+final class PlayerBypass {
+    static final String PREFIX = "itemprogressions.bypass.";
+
+    private final long[] bits;
+
+    private PlayerBypass(long[] bits) {
+        this.bits = bits;
+    }
+
+    static PlayerBypass resolve(Player p, LockConfig config) {
+        long[] bits = new long[(Material.values().length + 63) >>> 6];
+        boolean all = p.hasPermission(PREFIX + "*");
+
+        Set<LockConfig.LockRule> bypassedRules = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (!all) {
+            for (LockConfig.LockRule rule : config.rules) {
+                if (p.hasPermission(PREFIX + "rule." + rule.id())) bypassedRules.add(rule);
+            }
+        }
+
+        for (Material mat : config.lockedMaterials()) {
+            if (all || bypassedRules.containsAll(config.rulesFor(mat))
+                    || p.hasPermission(PREFIX + mat.getKey().getKey().toLowerCase(Locale.ROOT))) {
+                bits[mat.ordinal() >>> 6] |= 1L << mat.ordinal();
+            }
+        }
+        return new PlayerBypass(bits);
+    }
+
+    static boolean check(Player p, LockConfig config, Material mat) {
+        List<LockConfig.LockRule> rules = config.rulesFor(mat);
+        if (rules.isEmpty()) return false;
+        if (p.hasPermission(PREFIX + "*") || p.hasPermission(PREFIX + mat.getKey().getKey().toLowerCase(Locale.ROOT))) {
+            return true;
+        }
+        for (LockConfig.LockRule rule : rules) {
+            if (!p.hasPermission(PREFIX + "rule." + rule.id())) return false;
+        }
+        return true;
+    }
+
+    boolean has(Material mat) {
+        int index = mat.ordinal();
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    boolean sameAs(PlayerBypass other) {
+        return other != null && Arrays.equals(bits, other.bits);
+    }
+
+    long footprintBytes() {
+        return 16L + 16L + bits.length * 8L;
+    }
+}
@@ -0,0 +1,89 @@
+package de.thecoolcraft11.itemProgressions.listener;
+
+import de.thecoolcraft11.itemProgressions.logic.PlayerUnlockCache;
+import org.bukkit.Material;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+final class PlayerLockSession {
+    private static final int GRANTED_WORDS = (Material.values().length + 63) >>> 6;
+
+    private final UUID uuid;
+    private final PlayerUnlockCache unlockCache;
+    private final DecorationState decoration = new DecorationState();
+    private final Map<Material, Long> cooldownExpiry = new HashMap<>();
+    private final long[] granted = new long[GRANTED_WORDS];
+    private volatile PlayerBypass bypass;
+    private volatile boolean creative;
+    private long nextMessageAt;
+
+    PlayerLockSession(UUID uuid, PlayerUnlockCache unlockCache) {
+        this.uuid = uuid;
+        this.unlockCache = unlockCache;
+    }
+
+    UUID uuid() {
+        return uuid;
+    }
+
+    PlayerUnlockCache unlockCache() {
+        return unlockCache;
+    }
+
+    boolean creative() {
+        return creative;
+    }
+
+    void creative(boolean creative) {
+        this.creative = creative;
+    }
+
+    DecorationState decoration() {
+        return decoration;
+    }
+
+    Map<Material, Long> cooldownExpiry() {
+        return cooldownExpiry;
+    }
+
+    long[] granted() {
+        return granted;
+    }
+
+    boolean markGranted(Material mat) {
+        int index = mat.ordinal();
+        long bit = 1L << index;
+        if ((granted[index >>> 6] & bit) != 0) return false;
+        granted[index >>> 6] |= bit;
+        return true;
+    }
+
+    PlayerBypass bypass() {
+        return bypass;
+    }
+
+    PlayerBypass replaceBypass(PlayerBypass bypass) {
+        PlayerBypass previous = this.bypass;
+        this.bypass = bypass;
+        return previous;
+    }
+
+    boolean tryNotify(long nowMillis, long cooldownMillis) {
+        if (nowMillis < nextMessageAt) return false;
+        nextMessageAt = nowMillis + cooldownMillis;
+        return true;
+    }
+
+    long footprintBytes() {
+        long bytes = 40L;
+        bytes += 24L + unlockCache.footprintBytes();
+        bytes += decoration.footprintBytes();
+        bytes += 48L + cooldownExpiry.size() * 56L;
+        bytes += 16L + granted.length * 8L;
+        PlayerBypass current = bypass;
+        if (current != null) bytes += current.footprintBytes();
+        return bytes;
+    }
+}
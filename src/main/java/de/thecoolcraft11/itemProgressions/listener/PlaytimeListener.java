@@ -0,0 +1,51 @@
+package de.thecoolcraft11.itemProgressions.listener;
+
+import de.thecoolcraft11.itemProgressions.scheduler.TaskScheduler;
+import de.thecoolcraft11.itemProgressions.service.TimeTrackerService;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+public class PlaytimeListener implements Listener {
+    private static final Component LOAD_FAILED = Component.text("Could not load your playtime, please try again.", NamedTextColor.RED);
+
+    private final TimeTrackerService timeService;
+    private final TaskScheduler scheduler;
+
+    public PlaytimeListener(TimeTrackerService timeService, TaskScheduler scheduler) {
+        this.timeService = timeService;
+        this.scheduler = scheduler;
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onPreLogin(AsyncPlayerPreLoginEvent e) {
+        if (e.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+        if (!timeService.prefetch(e.getUniqueId())) {
+            e.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER, LOAD_FAILED);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLoginResult(AsyncPlayerPreLoginEvent e) {
+        if (e.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) timeService.discardPrefetch(e.getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent e) {
+        Player player = e.getPlayer();
+        timeService.playerJoined(player.getUniqueId()).thenAccept(loaded -> {
+            if (!loaded) scheduler.runForPlayer(player, () -> player.kick(LOAD_FAILED));
+        });
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent e) {
+        timeService.playerQuit(e.getPlayer().getUniqueId());
+    }
+}
@@ -0,0 +1,68 @@
+package de.thecoolcraft11.itemProgressions.logic;
+
+import de.thecoolcraft11.itemProgressions.config.LockConfig;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class CountdownFormat {
+    private static final String PREFIX = "Locked: unlocks in ";
+    private static final int MAX_CACHED_LINES = 4096;
+
+    private final LockConfig.CountdownStep[] steps;
+    private final Map<String, Component> lines = new ConcurrentHashMap<>();
+
+    public CountdownFormat(List<LockConfig.CountdownStep> steps) {
+        this.steps = steps.stream()
+                .filter(step -> step.resolutionSeconds() > 1)
+                .sorted(Comparator.comparingLong(LockConfig.CountdownStep::aboveSeconds).reversed())
+                .toArray(LockConfig.CountdownStep[]::new);
+    }
+
+    public String render(long remainingSeconds) {
+        return PREFIX + LockEvaluator.humanDuration(displayed(remainingSeconds));
+    }
+
+    public Component line(String text) {
+        Component line = lines.get(text);
+        if (line != null) return line;
+        if (lines.size() >= MAX_CACHED_LINES) lines.clear();
+        return lines.computeIfAbsent(text, t -> Component.text(t)
+                .color(NamedTextColor.RED)
+                .decoration(TextDecoration.ITALIC, false));
+    }
+
+    public long secondsUntilChange(long remainingSeconds) {
+        if (remainingSeconds <= 0) return Long.MAX_VALUE;
+        long resolution = 1L;
+        long floor = 0L;
+        for (LockConfig.CountdownStep step : steps) {
+            if (remainingSeconds > step.aboveSeconds()) {
+                resolution = step.resolutionSeconds();
+                floor = step.aboveSeconds();
+                break;
+            }
+        }
+        long shown = ceilTo(remainingSeconds, resolution);
+        long changesAt = Math.max(shown - resolution, floor);
+        return Math.max(1L, remainingSeconds - changesAt);
+    }
+
+    private long displayed(long remainingSeconds) {
+        for (LockConfig.CountdownStep step : steps) {
+            if (remainingSeconds > step.aboveSeconds()) {
+                return ceilTo(remainingSeconds, step.resolutionSeconds());
+            }
+        }
+        return remainingSeconds;
+    }
+
+    private static long ceilTo(long value, long resolution) {
+        return ((value + resolution - 1) / resolution) * resolution;
+    }
+}
@@ -7,74 +7,143 @@ import org.bukkit.World;
 import org.bukkit.entity.Player;
 
 import java.time.Instant;
-import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
-public record LockEvaluator(LockConfig config, TimeTrackerService time) {
+public final class LockEvaluator {
     public record Result(boolean allowed, long remainingSeconds) {
     }
 
-    public Result canUse(Player player, Material material) {
-        long worstRemaining = 0L;
-        boolean blocked = false;
-        for (LockConfig.LockRule rule : config.rules) {
-            if (!rule.matches(material)) continue;
-            long rem = remainingForRule(player, rule.condition());
-            if (rem > 0) {
-                blocked = true;
-                if (rem > worstRemaining) worstRemaining = rem;
-            }
-        }
-        if (!blocked) return new Result(true, 0);
-        return new Result(false, worstRemaining);
+    public static final Result ALLOWED = new Result(true, 0);
+
+    private final LockConfig config;
+    private final TimeTrackerService time;
+    private final UnlockThresholds materials;
+    private final UnlockThresholds dimensions;
+    private volatile ServerLockState serverMaterials;
+    private volatile ServerLockState serverDimensions;
+    private final Map<UUID, PlayerUnlockCache> playerCaches = new ConcurrentHashMap<>();
+    private volatile int generation;
+
+    public LockEvaluator(LockConfig config, TimeTrackerService time) {
+        this.config = config;
+        this.time = time;
+        this.materials = UnlockThresholds.forMaterials(config);
+        this.dimensions = UnlockThresholds.forDimensions(config);
+        refreshServerState();
     }
 
-    public Result canEnterDimension(Player player, World.Environment dimension) {
-        long worstRemaining = 0L;
-        boolean blocked = false;
-        for (LockConfig.DimensionLockRule rule : config.dimensionLocks) {
-            if (!rule.dimension().equals(dimension)) continue;
-            long rem = remainingForRule(player, rule.condition());
-            if (rem > 0) {
-                blocked = true;
-                if (rem > worstRemaining) worstRemaining = rem;
-            }
+    public void refreshServerState() {
+        long globalSeconds = time.getGlobalSeconds();
+        long now = Instant.now().getEpochSecond();
+        ServerLockState previous = serverMaterials;
+        this.serverMaterials = ServerLockState.compute(materials, globalSeconds, now);
+        this.serverDimensions = ServerLockState.compute(dimensions, globalSeconds, now);
+        if (!serverMaterials.sameLocks(previous)) invalidateAll();
+    }
+
+    public void invalidateAll() {
+        generation++;
+    }
+
+    public void forget(UUID player) {
+        playerCaches.remove(player);
+    }
+
+    public PlayerUnlockCache openUnlockCache(UUID player) {
+        return playerCaches.computeIfAbsent(player, k -> new PlayerUnlockCache());
+    }
+
+    public PlayerUnlockCache unlockCache(UUID player) {
+        PlayerUnlockCache cache = playerCaches.get(player);
+        return cache != null ? cache : new PlayerUnlockCache();
+    }
+
+    private boolean isUnlocked(UUID player, int index) {
+        PlayerUnlockCache cache = unlockCache(player);
+        long now = System.currentTimeMillis();
+        int currentGeneration = generation;
+        long[] bits = cache.bitsIfValid(now, currentGeneration);
+        if (bits == null) {
+            bits = cache.rebuild(materials, serverMaterials, time.getPlayerSeconds(player), now, currentGeneration);
         }
-        if (!blocked) return new Result(true, 0);
-        return new Result(false, worstRemaining);
+        return PlayerUnlockCache.isUnlocked(bits, index);
     }
 
-    private long remainingForRule(Player player, LockConfig.UnlockCondition condition) {
-        return switch (condition.type()) {
-            case REALTIME -> remainingRealtime(condition);
-            case PER_PLAYER -> remainingPerPlayer(player, condition);
-            case GLOBAL -> remainingGlobal(condition);
-        };
+    public LockConfig config() {
+        return config;
     }
 
-    private long remainingForRule(Player player, LockConfig.LockRule rule) {
-        return switch (rule.condition().type()) {
-            case REALTIME -> remainingRealtime(rule.condition());
-            case PER_PLAYER -> remainingPerPlayer(player, rule.condition());
-            case GLOBAL -> remainingGlobal(rule.condition());
-        };
+    public TimeTrackerService time() {
+        return time;
     }
 
-    private long remainingRealtime(LockConfig.UnlockCondition cond) {
-        if (cond.at() == null) return 0L;
-        long now = Instant.now().getEpochSecond();
-        long target = cond.at().getEpochSecond();
-        return Math.max(0, target - now);
+    public UnlockThresholds materialThresholds() {
+        return materials;
+    }
+
+    public UnlockThresholds dimensionThresholds() {
+        return dimensions;
     }
 
-    private long remainingPerPlayer(Player p, LockConfig.UnlockCondition cond) {
-        long have = time.getPlayerSeconds(p.getUniqueId());
-        return Math.max(0, cond.seconds() - have);
+    public ServerLockState serverMaterialState() {
+        return serverMaterials;
     }
 
-    private long remainingGlobal(LockConfig.UnlockCondition cond) {
-        long have = time.getGlobalSeconds();
-        return Math.max(0, cond.seconds() - have);
+    public ServerLockState serverDimensionState() {
+        return serverDimensions;
+    }
+
+    public Result canUse(Player player, Material material) {
+        long remaining = remainingSeconds(player, material);
+        if (remaining <= 0) return ALLOWED;
+        return new Result(false, remaining);
+    }
+
+    public Result canEnterDimension(Player player, World.Environment dimension) {
+        long remaining = remainingSeconds(player, dimension);
+        if (remaining <= 0) return ALLOWED;
+        return new Result(false, remaining);
+    }
+
+    public long remainingSeconds(Player player, Material material) {
+        int index = material.ordinal();
+        if (!materials.isLockable(index)) return 0L;
+        if (isUnlocked(player.getUniqueId(), index)) return 0L;
+        return remaining(materials, serverMaterials, index, player);
+    }
+
+    public long peekRemainingSeconds(UUID player, PlayerUnlockCache cache, Material material) {
+        int index = material.ordinal();
+        if (!materials.isLockable(index)) return 0L;
+        long playerSeconds = time.peekPlayerSeconds(player);
+        if (playerSeconds < 0L) return 0L;
+        long now = System.currentTimeMillis();
+        int currentGeneration = generation;
+        long[] bits = cache.bitsIfValid(now, currentGeneration);
+        if (bits == null) {
+            bits = cache.rebuild(materials, serverMaterials, playerSeconds, now, currentGeneration);
+        }
+        if (PlayerUnlockCache.isUnlocked(bits, index)) return 0L;
+        long remaining = serverMaterials.remainingSeconds(index);
+        long playerNeeded = materials.playerSeconds[index];
+        if (playerNeeded > 0) remaining = Math.max(remaining, playerNeeded - playerSeconds);
+        return Math.max(0L, remaining);
+    }
+
+    public long remainingSeconds(Player player, World.Environment dimension) {
+        return remaining(dimensions, serverDimensions, dimension.ordinal(), player);
+    }
+
+    private long remaining(UnlockThresholds table, ServerLockState server, int index, Player player) {
+        long remaining = server.remainingSeconds(index);
+        long playerNeeded = table.playerSeconds[index];
+        if (playerNeeded > 0) {
+            remaining = Math.max(remaining, playerNeeded - time.getPlayerSeconds(player.getUniqueId()));
+        }
+        return Math.max(0L, remaining);
     }
 
     public static String humanDuration(long seconds) {
@@ -94,26 +163,10 @@ public record LockEvaluator(LockConfig config, TimeTrackerService time) {
     }
 
     public Set<Material> getAllLockedMaterials() {
-        Set<Material> result = new HashSet<>();
-        for (Material mat : Material.values()) {
-            for (LockConfig.LockRule rule : config.rules) {
-                if (rule.matches(mat)) {
-                    result.add(mat);
-                    break;
-                }
-            }
-        }
-        return result;
+        return config.lockedMaterials();
     }
 
     public boolean isGloballyLocked(Material material) {
-        for (LockConfig.LockRule rule : config.rules) {
-            if (!rule.matches(material)) continue;
-            LockConfig.UnlockCondition cond = rule.condition();
-            if ((cond.type() == LockConfig.UnlockCondition.Type.GLOBAL && remainingGlobal(cond) > 0) || (cond.type() == LockConfig.UnlockCondition.Type.REALTIME && remainingRealtime(cond) > 0)) {
-                return true;
-            }
-        }
-        return false;
+        return serverMaterials.isLocked(material.ordinal());
     }
 }
@@ -0,0 +1,51 @@
+package de.thecoolcraft11.itemProgressions.logic;
+
+public final class PlayerUnlockCache {
+    private record Snapshot(long[] unlockedBits, long validUntilMillis, int generation) {
+    }
+
+    private volatile Snapshot snapshot;
+
+    PlayerUnlockCache() {
+    }
+
+    long[] bitsIfValid(long nowMillis, int currentGeneration) {
+        Snapshot current = snapshot;
+        if (current == null || current.generation() != currentGeneration || nowMillis >= current.validUntilMillis()) {
+            return null;
+        }
+        return current.unlockedBits();
+    }
+
+    long[] rebuild(UnlockThresholds table, ServerLockState server, long playerSeconds, long nowMillis, int generation) {
+        long[] bits = new long[(table.size() + 63) >>> 6];
+        long nextStep = Long.MAX_VALUE;
+        for (int index : table.lockableIndices()) {
+            long needed = table.playerSeconds[index];
+            if (needed > playerSeconds) {
+                nextStep = Math.min(nextStep, needed - playerSeconds);
+            } else if (!server.isLocked(index)) {
+                bits[index >>> 6] |= 1L << index;
+            }
+        }
+        long validUntil = nextStep == Long.MAX_VALUE ? Long.MAX_VALUE : nowMillis + nextStep * 1000L;
+        this.snapshot = new Snapshot(bits, validUntil, generation);
+        return bits;
+    }
+
+    static boolean isUnlocked(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public long validUntilMillis() {
+        Snapshot current = snapshot;
+        return current == null ? 0L : current.validUntilMillis();
+    }
+
+    public long footprintBytes() {
+        Snapshot current = snapshot;
+        long bytes = 16L + 16L;
+        if (current != null) bytes += 32L + 16L + current.unlockedBits().length * 8L;
+        return bytes;
+    }
+}
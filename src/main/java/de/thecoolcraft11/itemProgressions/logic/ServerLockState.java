@@ -0,0 +1,52 @@
+package de.thecoolcraft11.itemProgressions.logic;
+
+import java.util.Arrays;
+
+public final class ServerLockState {
+    private final long[] lockedBits;
+    private final long[] remainingSeconds;
+    private final long nextTransitionSeconds;
+
+    private ServerLockState(int size, long[] remainingSeconds, long nextTransitionSeconds) {
+        this.lockedBits = new long[(size + 63) >>> 6];
+        this.remainingSeconds = remainingSeconds;
+        this.nextTransitionSeconds = nextTransitionSeconds;
+    }
+
+    static ServerLockState compute(UnlockThresholds table, long globalSeconds, long nowEpochSeconds) {
+        long[] remaining = new long[table.size()];
+        long next = Long.MAX_VALUE;
+        for (int index : table.serverIndices()) {
+            long rem = 0L;
+            long globalNeeded = table.globalSeconds[index];
+            if (globalNeeded > 0) rem = globalNeeded - globalSeconds;
+            long unlockAt = table.realtimeEpochSeconds[index];
+            if (unlockAt > 0) rem = Math.max(rem, unlockAt - nowEpochSeconds);
+            if (rem > 0) {
+                remaining[index] = rem;
+                if (rem < next) next = rem;
+            }
+        }
+        ServerLockState state = new ServerLockState(table.size(), remaining, next);
+        for (int index : table.serverIndices()) {
+            if (remaining[index] > 0) state.lockedBits[index >>> 6] |= 1L << index;
+        }
+        return state;
+    }
+
+    public boolean isLocked(int index) {
+        return (lockedBits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public long remainingSeconds(int index) {
+        return remainingSeconds[index];
+    }
+
+    public boolean sameLocks(ServerLockState other) {
+        return other != null && Arrays.equals(lockedBits, other.lockedBits);
+    }
+
+    public long nextTransitionSeconds() {
+        return nextTransitionSeconds;
+    }
+}
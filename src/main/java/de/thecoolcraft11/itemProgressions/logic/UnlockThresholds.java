@@ -0,0 +1,109 @@
+package de.thecoolcraft11.itemProgressions.logic;
+
+import de.thecoolcraft11.itemProgressions.config.LockConfig;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import java.util.Arrays;
+
+public final class UnlockThresholds {
+    final long[] playerSeconds;
+    final long[] globalSeconds;
+    final long[] realtimeEpochSeconds;
+    private int[] serverIndices;
+    private int[] lockableIndices;
+    private long[] lockableBits;
+
+    private UnlockThresholds(int size) {
+        this.playerSeconds = new long[size];
+        this.globalSeconds = new long[size];
+        this.realtimeEpochSeconds = new long[size];
+    }
+
+    public static UnlockThresholds forMaterials(LockConfig config) {
+        UnlockThresholds table = new UnlockThresholds(Material.values().length);
+        for (Material mat : config.lockedMaterials()) {
+            for (LockConfig.LockRule rule : config.rulesFor(mat)) {
+                table.add(mat.ordinal(), rule.condition());
+            }
+        }
+        table.finish();
+        return table;
+    }
+
+    public static UnlockThresholds forDimensions(LockConfig config) {
+        UnlockThresholds table = new UnlockThresholds(World.Environment.values().length);
+        for (LockConfig.DimensionLockRule rule : config.dimensionLocks) {
+            table.add(rule.dimension().ordinal(), rule.condition());
+        }
+        table.finish();
+        return table;
+    }
+
+    private void add(int index, LockConfig.UnlockCondition condition) {
+        switch (condition.type()) {
+            case REALTIME -> {
+                if (condition.at() != null) {
+                    realtimeEpochSeconds[index] = Math.max(realtimeEpochSeconds[index], condition.at().getEpochSecond());
+                }
+            }
+            case PER_PLAYER -> playerSeconds[index] = Math.max(playerSeconds[index], condition.seconds());
+            case GLOBAL -> globalSeconds[index] = Math.max(globalSeconds[index], condition.seconds());
+        }
+    }
+
+    private void finish() {
+        int serverCount = 0;
+        int lockableCount = 0;
+        int[] server = new int[size()];
+        int[] lockable = new int[size()];
+        this.lockableBits = new long[(size() + 63) >>> 6];
+        for (int i = 0; i < size(); i++) {
+            boolean serverBound = globalSeconds[i] > 0 || realtimeEpochSeconds[i] > 0;
+            if (serverBound) server[serverCount++] = i;
+            if (serverBound || playerSeconds[i] > 0) {
+                lockable[lockableCount++] = i;
+                lockableBits[i >>> 6] |= 1L << i;
+            }
+        }
+        this.serverIndices = Arrays.copyOf(server, serverCount);
+        this.lockableIndices = Arrays.copyOf(lockable, lockableCount);
+    }
+
+    public boolean isLockable(int index) {
+        return (lockableBits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    int[] lockableIndices() {
+        return lockableIndices;
+    }
+
+    static long[] playerSteps(UnlockThresholds... tables) {
+        return Arrays.stream(tables)
+                .flatMapToLong(table -> Arrays.stream(table.playerSeconds))
+                .filter(seconds -> seconds > 0)
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    int[] serverIndices() {
+        return serverIndices;
+    }
+
+    public int size() {
+        return playerSeconds.length;
+    }
+
+    public long playerSeconds(int index) {
+        return playerSeconds[index];
+    }
+
+    public long globalSeconds(int index) {
+        return globalSeconds[index];
+    }
+
+    public long realtimeEpochSeconds(int index) {
+        return realtimeEpochSeconds[index];
+    }
+}
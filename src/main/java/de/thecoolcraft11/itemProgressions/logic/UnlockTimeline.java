@@ -0,0 +1,85 @@
+package de.thecoolcraft11.itemProgressions.logic;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public final class UnlockTimeline {
+    private record Entry(long dueMillis, UUID target) {
+    }
+
+    private static final UUID GLOBAL = new UUID(0L, 0L);
+    private static final int COMPACT_SLACK = 64;
+
+    private final LockEvaluator evaluator;
+    private final long[] playerSteps;
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparingLong(Entry::dueMillis));
+    private final Map<UUID, Long> due = new HashMap<>();
+
+    public UnlockTimeline(LockEvaluator evaluator) {
+        this.evaluator = evaluator;
+        this.playerSteps = UnlockThresholds.playerSteps(evaluator.materialThresholds(), evaluator.dimensionThresholds());
+    }
+
+    public synchronized void scheduleGlobal(long nowMillis) {
+        long next = Math.min(evaluator.serverMaterialState().nextTransitionSeconds(),
+                evaluator.serverDimensionState().nextTransitionSeconds());
+        if (next == Long.MAX_VALUE) return;
+        schedule(GLOBAL, nowMillis + next * 1000L);
+    }
+
+    public synchronized void schedulePlayer(UUID player, long nowMillis) {
+        long have = evaluator.time().getPlayerSeconds(player);
+        long next = nextPlayerStep(have);
+        if (next < 0) return;
+        schedule(player, nowMillis + (next - have) * 1000L);
+    }
+
+    public synchronized void schedule(UUID target, long dueMillis) {
+        Long current = due.get(target);
+        if (current != null && current <= dueMillis) return;
+        due.put(target, dueMillis);
+        queue.add(new Entry(dueMillis, target));
+        compactIfStale();
+    }
+
+    public synchronized void remove(UUID player) {
+        due.remove(player);
+        compactIfStale();
+    }
+
+    public synchronized void poll(long nowMillis, Consumer<UUID> onPlayer, Runnable onGlobal) {
+        Entry head;
+        while ((head = queue.peek()) != null && head.dueMillis() <= nowMillis) {
+            queue.poll();
+            Long current = due.get(head.target());
+            if (current == null || current != head.dueMillis()) continue;
+            due.remove(head.target());
+            if (head.target() == GLOBAL) {
+                onGlobal.run();
+            } else {
+                onPlayer.accept(head.target());
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return due.size();
+    }
+
+    private void compactIfStale() {
+        if (queue.size() <= 2 * due.size() + COMPACT_SLACK) return;
+        queue.clear();
+        due.forEach((target, dueMillis) -> queue.add(new Entry(dueMillis, target)));
+    }
+
+    private long nextPlayerStep(long have) {
+        int idx = Arrays.binarySearch(playerSteps, have + 1);
+        if (idx < 0) idx = -idx - 1;
+        return idx < playerSteps.length ? playerSteps[idx] : -1L;
+    }
+}
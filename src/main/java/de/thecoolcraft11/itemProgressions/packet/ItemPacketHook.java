@@ -0,0 +1,16 @@
+package de.thecoolcraft11.itemProgressions.packet;
+
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+public interface ItemPacketHook {
+    interface Rewriter {
+        ItemStack rewrite(Player viewer, ItemStack outgoing);
+    }
+
+    void install(Rewriter rewriter);
+
+    void uninstall();
+
+    void resend(Player player);
+}
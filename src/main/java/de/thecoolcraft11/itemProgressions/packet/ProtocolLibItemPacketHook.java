@@ -0,0 +1,70 @@
+package de.thecoolcraft11.itemProgressions.packet;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.ProtocolLibrary;
+import com.comphenix.protocol.events.ListenerPriority;
+import com.comphenix.protocol.events.PacketAdapter;
+import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.events.PacketEvent;
+import com.comphenix.protocol.reflect.StructureModifier;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProtocolLibItemPacketHook implements ItemPacketHook {
+    private final Plugin plugin;
+    private PacketAdapter adapter;
+
+    public ProtocolLibItemPacketHook(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void install(Rewriter rewriter) {
+        uninstall();
+        this.adapter = new PacketAdapter(plugin, ListenerPriority.HIGH, PacketType.Play.Server.WINDOW_ITEMS, PacketType.Play.Server.SET_SLOT) {
+            @Override
+            public void onPacketSending(PacketEvent event) {
+                Player viewer = event.getPlayer();
+                if (viewer == null) return;
+                PacketContainer packet = event.getPacket();
+
+                StructureModifier<ItemStack> items = packet.getItemModifier();
+                for (int i = 0; i < items.size(); i++) {
+                    ItemStack rewritten = rewriter.rewrite(viewer, items.read(i));
+                    if (rewritten != null) items.write(i, rewritten);
+                }
+
+                StructureModifier<List<ItemStack>> lists = packet.getItemListModifier();
+                for (int i = 0; i < lists.size(); i++) {
+                    List<ItemStack> list = lists.read(i);
+                    if (list == null) continue;
+                    List<ItemStack> out = null;
+                    for (int slot = 0; slot < list.size(); slot++) {
+                        ItemStack rewritten = rewriter.rewrite(viewer, list.get(slot));
+                        if (rewritten == null) continue;
+                        if (out == null) out = new ArrayList<>(list);
+                        out.set(slot, rewritten);
+                    }
+                    if (out != null) lists.write(i, out);
+                }
+            }
+        };
+        ProtocolLibrary.getProtocolManager().addPacketListener(adapter);
+    }
+
+    @Override
+    public void uninstall() {
+        if (adapter == null) return;
+        ProtocolLibrary.getProtocolManager().removePacketListener(adapter);
+        adapter = null;
+    }
+
+    @Override
+    public void resend(Player player) {
+        player.updateInventory();
+    }
+}
@@ -0,0 +1,31 @@
+package de.thecoolcraft11.itemProgressions.scheduler;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+public interface TaskScheduler {
+    static TaskScheduler create(Plugin plugin) {
+        return isFolia() ? new FoliaTaskScheduler(plugin) : new BukkitTaskScheduler(plugin);
+    }
+
+    private static boolean isFolia() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    boolean isRegionThreaded();
+
+    Task runTimer(Runnable task, long delayTicks, long periodTicks);
+
+    void run(Runnable task);
+
+    void runForPlayer(Player player, Runnable task);
+
+    interface Task {
+        void cancel();
+    }
+}
@@ -0,0 +1,65 @@
+package de.thecoolcraft11.itemProgressions.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+final class PlaytimeClock {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final Map<UUID, Mark> players = new HashMap<>();
+    private long lastNanos;
+    private long globalCarry;
+
+    PlaytimeClock(long nowNanos) {
+        this.lastNanos = nowNanos;
+    }
+
+    long advanceGlobal(long nowNanos) {
+        long elapsed = globalCarry + Math.max(0L, nowNanos - lastNanos);
+        lastNanos = nowNanos;
+        globalCarry = elapsed % NANOS_PER_SECOND;
+        return elapsed / NANOS_PER_SECOND;
+    }
+
+    void join(UUID uuid, long nowNanos) {
+        Mark mark = players.computeIfAbsent(uuid, k -> new Mark());
+        mark.since = nowNanos;
+        mark.online = true;
+    }
+
+    long advance(UUID uuid, long nowNanos) {
+        Mark mark = players.get(uuid);
+        if (mark == null || !mark.online) {
+            join(uuid, nowNanos);
+            return 0L;
+        }
+        return mark.credit(nowNanos);
+    }
+
+    long quit(UUID uuid, long nowNanos) {
+        Mark mark = players.get(uuid);
+        if (mark == null || !mark.online) return 0L;
+        long seconds = mark.credit(nowNanos);
+        mark.online = false;
+        return seconds;
+    }
+
+    void forget(UUID uuid) {
+        Mark mark = players.get(uuid);
+        if (mark != null && !mark.online) players.remove(uuid);
+    }
+
+    private static final class Mark {
+        long since;
+        long carry;
+        boolean online;
+
+        long credit(long nowNanos) {
+            long elapsed = carry + Math.max(0L, nowNanos - since);
+            since = nowNanos;
+            carry = elapsed % NANOS_PER_SECOND;
+            return elapsed / NANOS_PER_SECOND;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package de.thecoolcraft11.itemProgressions.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+final class PlaytimeJournal implements AutoCloseable {
+    static final int RECORD_BYTES = 32;
+
+    private final Path path;
+    private FileChannel channel;
+
+    PlaytimeJournal(File file) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Could not create " + parent);
+        }
+        this.path = file.toPath();
+        this.channel = open(path);
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    static ByteBuffer batch(int records) {
+        return ByteBuffer.allocate(records * RECORD_BYTES);
+    }
+
+    static void put(ByteBuffer batch, long msb, long lsb, long seq, long delta) {
+        batch.putLong(msb).putLong(lsb).putLong(seq).putLong(delta);
+    }
+
+    synchronized long replay(TimeStorage.Loaded covered, Replay sink) throws IOException {
+        long[] maxSeq = {0L};
+        long complete = scan((msb, lsb, seq, delta) -> {
+            maxSeq[0] = Math.max(maxSeq[0], seq);
+            if (seq > covered.coveredSeq(msb, lsb)) sink.apply(msb, lsb, delta);
+        });
+        if (complete != channel.size()) channel.truncate(complete);
+        channel.position(complete);
+        return maxSeq[0];
+    }
+
+    synchronized void append(ByteBuffer batch) throws IOException {
+        batch.flip();
+        while (batch.hasRemaining()) channel.write(batch);
+    }
+
+    synchronized void force() throws IOException {
+        channel.force(false);
+    }
+
+    synchronized void compact(long coveredSeq) throws IOException {
+        int[] kept = {0};
+        scan((msb, lsb, seq, delta) -> {
+            if (seq > coveredSeq) kept[0]++;
+        });
+        if (kept[0] == 0) {
+            channel.truncate(0L);
+            channel.position(0L);
+            channel.force(true);
+            return;
+        }
+
+        ByteBuffer retained = batch(kept[0]);
+        scan((msb, lsb, seq, delta) -> {
+            if (seq > coveredSeq) put(retained, msb, lsb, seq, delta);
+        });
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            retained.flip();
+            while (retained.hasRemaining()) out.write(retained);
+            out.force(true);
+        }
+        channel.close();
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = open(path);
+        channel.position(channel.size());
+    }
+
+    private long scan(Record visitor) throws IOException {
+        long size = channel.size();
+        long complete = size - size % RECORD_BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES * 1024);
+        long position = 0L;
+        while (position < complete) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), complete - position));
+            int read = channel.read(buffer, position);
+            if (read <= 0) break;
+            position += read;
+            buffer.flip();
+            while (buffer.remaining() >= RECORD_BYTES) {
+                visitor.accept(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+            }
+            if (buffer.hasRemaining()) position -= buffer.remaining();
+        }
+        return complete;
+    }
+
+    synchronized long sizeBytes() {
+        try {
+            return channel.size();
+        } catch (IOException e) {
+            return -1L;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    @FunctionalInterface
+    private interface Record {
+        void accept(long msb, long lsb, long seq, long delta);
+    }
+
+    @FunctionalInterface
+    interface Replay {
+        void apply(long msb, long lsb, long delta);
+    }
+}
@@ -0,0 +1,187 @@
+package de.thecoolcraft11.itemProgressions.service;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.UUID;
+
+public final class PlaytimeStore {
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int STRIDE = 3;
+    private static final int MIN_CAPACITY = 64;
+
+    // Slot layout is [msb, lsb, seconds + 1]; a zero tag marks an empty slot and publishes the key,
+    // a negative tag marks a removed entry that still keeps its probe chain intact.
+    private static final long REMOVED = -1L;
+
+    private volatile long[] table;
+    private int size;
+    private int used;
+
+    public PlaytimeStore() {
+        this(MIN_CAPACITY);
+    }
+
+    public PlaytimeStore(int expected) {
+        this.table = new long[capacityFor(expected) * STRIDE];
+    }
+
+    public long get(UUID uuid) {
+        return get(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    public long get(long msb, long lsb) {
+        long tag = tag(msb, lsb);
+        return tag > 0L ? tag - 1L : 0L;
+    }
+
+    public long getOrDefault(UUID uuid, long fallback) {
+        long tag = tag(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        return tag > 0L ? tag - 1L : fallback;
+    }
+
+    public boolean contains(UUID uuid) {
+        return tag(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()) > 0L;
+    }
+
+    private long tag(long msb, long lsb) {
+        long[] t = table;
+        int mask = t.length / STRIDE - 1;
+        for (int slot = mix(msb, lsb) & mask; ; slot = (slot + 1) & mask) {
+            int base = slot * STRIDE;
+            long tag = (long) SLOTS.getAcquire(t, base + 2);
+            if (tag == 0L) return 0L;
+            if (t[base] == msb && t[base + 1] == lsb) return tag;
+        }
+    }
+
+    public synchronized void put(UUID uuid, long seconds) {
+        write(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), Math.max(0L, seconds), false);
+    }
+
+    public synchronized long add(UUID uuid, long seconds) {
+        return write(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), seconds, true);
+    }
+
+    public synchronized long putIfAbsent(UUID uuid, long seconds) {
+        long tag = tag(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+        if (tag > 0L) return tag - 1L;
+        return write(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), Math.max(0L, seconds), false);
+    }
+
+    public synchronized long remove(UUID uuid) {
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        long[] t = table;
+        int mask = t.length / STRIDE - 1;
+        for (int slot = mix(msb, lsb) & mask; ; slot = (slot + 1) & mask) {
+            int base = slot * STRIDE;
+            long tag = t[base + 2];
+            if (tag == 0L) return -1L;
+            if (t[base] == msb && t[base + 1] == lsb) {
+                if (tag < 0L) return -1L;
+                SLOTS.setRelease(t, base + 2, REMOVED);
+                size--;
+                return tag - 1L;
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public void forEach(Visitor visitor) {
+        long[] t = table;
+        for (int base = 0; base < t.length; base += STRIDE) {
+            long tag = (long) SLOTS.getAcquire(t, base + 2);
+            if (tag > 0L) visitor.accept(new UUID(t[base], t[base + 1]), tag - 1L);
+        }
+    }
+
+    public MemoryReport memoryReport() {
+        long[] t = table;
+        int entries;
+        synchronized (this) {
+            entries = size;
+        }
+        return new MemoryReport(entries, t.length / STRIDE, 16L + t.length * 8L, boxedEstimate(entries));
+    }
+
+    public static MemoryReport projectedReport(int entries) {
+        int capacity = capacityFor(entries);
+        return new MemoryReport(entries, capacity, 16L + (long) capacity * STRIDE * 8L, boxedEstimate(entries));
+    }
+
+    private long write(long msb, long lsb, long seconds, boolean accumulate) {
+        int capacity = table.length / STRIDE;
+        if ((used + 1) * 4L > capacity * 3L) rebuild(size * 2L >= capacity ? capacity * 2 : capacity);
+        long[] t = table;
+        int mask = t.length / STRIDE - 1;
+        for (int slot = mix(msb, lsb) & mask; ; slot = (slot + 1) & mask) {
+            int base = slot * STRIDE;
+            long tag = t[base + 2];
+            if (tag == 0L) {
+                long value = Math.max(0L, seconds);
+                t[base] = msb;
+                t[base + 1] = lsb;
+                SLOTS.setRelease(t, base + 2, value + 1L);
+                size++;
+                used++;
+                return value;
+            }
+            if (t[base] == msb && t[base + 1] == lsb) {
+                long current = tag > 0L ? tag - 1L : 0L;
+                long value = Math.max(0L, accumulate ? current + seconds : seconds);
+                SLOTS.setRelease(t, base + 2, value + 1L);
+                if (tag < 0L) size++;
+                return value;
+            }
+        }
+    }
+
+    private void rebuild(int capacity) {
+        long[] old = table;
+        long[] grown = new long[capacity * STRIDE];
+        int mask = capacity - 1;
+        for (int base = 0; base < old.length; base += STRIDE) {
+            long tag = old[base + 2];
+            if (tag <= 0L) continue;
+            int slot = mix(old[base], old[base + 1]) & mask;
+            while (grown[slot * STRIDE + 2] != 0L) slot = (slot + 1) & mask;
+            grown[slot * STRIDE] = old[base];
+            grown[slot * STRIDE + 1] = old[base + 1];
+            grown[slot * STRIDE + 2] = tag;
+        }
+        table = grown;
+        used = size;
+    }
+
+    private static int capacityFor(int expected) {
+        long needed = Math.max(MIN_CAPACITY, (long) Math.ceil(expected / 0.75D) + 1L);
+        return (int) Long.highestOneBit(needed - 1L) << 1;
+    }
+
+    private static int mix(long msb, long lsb) {
+        long h = msb * 0x9E3779B97F4A7C15L ^ lsb;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private static long boxedEstimate(int entries) {
+        int buckets = Integer.highestOneBit(Math.max(16, (int) (entries / 0.75F)) - 1) << 1;
+        return 48L + 16L + buckets * 4L + entries * (32L + 32L + 24L);
+    }
+
+    @FunctionalInterface
+    public interface Visitor {
+        void accept(UUID uuid, long seconds);
+    }
+
+    public record MemoryReport(int entries, int capacity, long tableBytes, long boxedMapBytes) {
+        public double bytesPerEntry() {
+            return entries == 0 ? 0D : (double) tableBytes / entries;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package de.thecoolcraft11.itemProgressions.service;
+
+import de.thecoolcraft11.itemProgressions.ItemProgressions;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+final class SqliteTimeStorage implements TimeStorage {
+    private static final int BATCH_SIZE = 1000;
+
+    private final Connection connection;
+
+    SqliteTimeStorage(File dataFolder) throws IOException {
+        if (!dataFolder.isDirectory() && !dataFolder.mkdirs()) {
+            throw new IOException("Could not create " + dataFolder);
+        }
+        try {
+            this.connection = DriverManager.getConnection("jdbc:sqlite:" + new File(dataFolder, "time-data.db").getAbsolutePath());
+            try (Statement st = connection.createStatement()) {
+                st.execute("PRAGMA journal_mode=WAL");
+                st.execute("PRAGMA synchronous=NORMAL");
+                st.execute("CREATE TABLE IF NOT EXISTS playtime (msb INTEGER NOT NULL, lsb INTEGER NOT NULL, seconds INTEGER NOT NULL, PRIMARY KEY (msb, lsb)) WITHOUT ROWID");
+                st.execute("CREATE TABLE IF NOT EXISTS meta (name TEXT PRIMARY KEY, value INTEGER NOT NULL)");
+            }
+        } catch (SQLException e) {
+            throw new IOException("Could not open time-data.db: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "sqlite";
+    }
+
+    @Override
+    public synchronized Loaded load(PlaytimeStore store) throws IOException {
+        try (Statement st = connection.createStatement(); ResultSet rs = st.executeQuery("SELECT msb, lsb, seconds FROM playtime")) {
+            while (rs.next()) {
+                store.put(new UUID(rs.getLong(1), rs.getLong(2)), rs.getLong(3));
+            }
+        } catch (SQLException e) {
+            throw new IOException("Could not load time data: " + e.getMessage(), e);
+        }
+        return loadMeta();
+    }
+
+    @Override
+    public synchronized Loaded loadMeta() throws IOException {
+        try {
+            return Loaded.uniform(meta("globalSeconds"), meta("journalSeq"));
+        } catch (SQLException e) {
+            throw new IOException("Could not load time data: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized long loadPlayer(UUID uuid) throws IOException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT seconds FROM playtime WHERE msb = ? AND lsb = ?")) {
+            ps.setLong(1, uuid.getMostSignificantBits());
+            ps.setLong(2, uuid.getLeastSignificantBits());
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : -1L;
+            }
+        } catch (SQLException e) {
+            throw new IOException("Could not load time data for " + uuid + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized List<UUID> write(Snapshot snapshot) {
+        try {
+            connection.setAutoCommit(false);
+            try (PreparedStatement ps = connection.prepareStatement("INSERT INTO playtime (msb, lsb, seconds) VALUES (?, ?, ?) ON CONFLICT (msb, lsb) DO UPDATE SET seconds = excluded.seconds")) {
+                for (int i = 0; i < snapshot.size(); i++) {
+                    ps.setLong(1, snapshot.msb()[i]);
+                    ps.setLong(2, snapshot.lsb()[i]);
+                    ps.setLong(3, snapshot.seconds()[i]);
+                    ps.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0) ps.executeBatch();
+                }
+                ps.executeBatch();
+            }
+            setMeta("globalSeconds", snapshot.globalSeconds());
+            setMeta("journalSeq", snapshot.journalSeq());
+            connection.commit();
+            return List.of();
+        } catch (SQLException e) {
+            ItemProgressions.getPlugin(ItemProgressions.class).getLogger().warning("Could not save time data!: " + e.getMessage());
+            try {
+                connection.rollback();
+            } catch (SQLException ignored) {
+            }
+            List<UUID> failed = new ArrayList<>(snapshot.size());
+            for (int i = 0; i < snapshot.size(); i++) {
+                failed.add(new UUID(snapshot.msb()[i], snapshot.lsb()[i]));
+            }
+            return failed;
+        } finally {
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    private long meta(String name) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT value FROM meta WHERE name = ?")) {
+            ps.setString(1, name);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0L;
+            }
+        }
+    }
+
+    private void setMeta(String name, long value) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("INSERT INTO meta (name, value) VALUES (?, ?) ON CONFLICT (name) DO UPDATE SET value = excluded.value")) {
+            ps.setString(1, name);
+            ps.setLong(2, value);
+            ps.executeUpdate();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+    }
+}
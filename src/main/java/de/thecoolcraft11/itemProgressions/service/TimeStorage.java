@@ -0,0 +1,86 @@
+package de.thecoolcraft11.itemProgressions.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+public interface TimeStorage extends AutoCloseable {
+    int SHARDS = 256;
+    UUID GLOBAL = new UUID(0L, 0L);
+
+    static int shardOf(long msb) {
+        return (int) (msb >>> 56);
+    }
+
+    static TimeStorage create(String type, File dataFolder) throws IOException {
+        return switch (type.toLowerCase(Locale.ROOT)) {
+            case "yaml", "yml" -> new YamlTimeStorage(dataFolder);
+            case "sqlite", "sql" -> new SqliteTimeStorage(dataFolder);
+            default -> throw new IOException("Unknown storage type " + type + " (expected yaml or sqlite)");
+        };
+    }
+
+    String name();
+
+    Loaded load(PlaytimeStore store) throws IOException;
+
+    Loaded loadMeta() throws IOException;
+
+    long loadPlayer(UUID uuid) throws IOException;
+
+    List<UUID> write(Snapshot snapshot);
+
+    @Override
+    void close() throws IOException;
+
+    record Loaded(long globalSeconds, long globalSeq, long[] shardSeq) {
+        static Loaded uniform(long globalSeconds, long seq) {
+            long[] shardSeq = new long[SHARDS];
+            Arrays.fill(shardSeq, seq);
+            return new Loaded(globalSeconds, seq, shardSeq);
+        }
+
+        long coveredSeq(long msb, long lsb) {
+            return msb == 0L && lsb == 0L ? globalSeq : shardSeq[shardOf(msb)];
+        }
+
+        long maxSeq() {
+            long max = globalSeq;
+            for (long seq : shardSeq) max = Math.max(max, seq);
+            return max;
+        }
+    }
+
+    record Snapshot(long globalSeconds, long journalSeq, long[] msb, long[] lsb, long[] seconds) {
+        static Snapshot of(PlaytimeStore store, long globalSeconds, long journalSeq) {
+            int size = store.size();
+            long[] msb = new long[size];
+            long[] lsb = new long[size];
+            long[] seconds = new long[size];
+            int[] i = {0};
+            store.forEach((uuid, value) -> {
+                if (i[0] >= size) return;
+                msb[i[0]] = uuid.getMostSignificantBits();
+                lsb[i[0]] = uuid.getLeastSignificantBits();
+                seconds[i[0]++] = value;
+            });
+            return new Snapshot(globalSeconds, journalSeq, Arrays.copyOf(msb, i[0]), Arrays.copyOf(lsb, i[0]), Arrays.copyOf(seconds, i[0]));
+        }
+
+        int size() {
+            return msb.length;
+        }
+
+        int[] shardOrder() {
+            int[] start = new int[SHARDS + 1];
+            for (long m : msb) start[shardOf(m) + 1]++;
+            for (int i = 0; i < SHARDS; i++) start[i + 1] += start[i];
+            int[] order = new int[msb.length];
+            for (int i = 0; i < msb.length; i++) order[start[shardOf(msb[i])]++] = i;
+            return order;
+        }
+    }
+}
@@ -1,79 +1,568 @@
 package de.thecoolcraft11.itemProgressions.service;
 
 import de.thecoolcraft11.itemProgressions.ItemProgressions;
+import de.thecoolcraft11.itemProgressions.config.LockConfig;
 import org.bukkit.Bukkit;
-import org.bukkit.Server;
-import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
 
 public class TimeTrackerService {
-    private final File file;
-    private final Map<UUID, Long> playerSeconds = new HashMap<>();
-    private long globalSeconds = 0L;
+    private static final long PENDING_JOIN_MILLIS = 60_000L;
 
-    private long lastTickNanos = System.nanoTime();
+    private final File dataFolder;
+    private final File legacyFile;
+    private volatile TimeStorage storage;
+    private final ReadWriteLock storageLock = new ReentrantReadWriteLock();
+    private final PlaytimeStore playerSeconds = new PlaytimeStore();
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> saving = ConcurrentHashMap.newKeySet();
+    private final Queue<ByteBuffer> journalQueue = new ConcurrentLinkedQueue<>();
+    private final long shutdownTimeoutMillis;
+    private final boolean lazy;
+    private final long evictGraceMillis;
+    private final Map<UUID, Long> idleSince = new HashMap<>();
+    private final Map<UUID, Long> offline;
+    private final Set<UUID> loading = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, PendingJoin> pendingJoins = new ConcurrentHashMap<>();
+    private final Map<UUID, CompletableFuture<Boolean>> joining = new HashMap<>();
+    private final ExecutorService io = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "ItemProgressions-IO");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile long globalSeconds = 0L;
+    private volatile boolean legacyPending;
+    private PlaytimeJournal journal;
+    private long journalSeq;
 
-    public TimeTrackerService(File dataFolder) {
-        this.file = new File(dataFolder, "time-data.yml");
-        load();
+    private final LongSupplier nanoClock;
+    private final PlaytimeClock clock;
+
+    public TimeTrackerService(File dataFolder, LockConfig config) {
+        this(dataFolder, config, System::nanoTime);
     }
 
-    public synchronized void tick() {
-        long currentNanos = System.nanoTime();
-        long deltaNanos = Math.max(0L, currentNanos - lastTickNanos);
-        lastTickNanos = currentNanos;
+    public TimeTrackerService(File dataFolder, LockConfig config, LongSupplier nanoClock) {
+        this.dataFolder = dataFolder;
+        this.nanoClock = nanoClock;
+        this.clock = new PlaytimeClock(nanoClock.getAsLong());
+        this.legacyFile = new File(dataFolder, "time-data.yml");
+        this.lazy = config.lazyTimeLoading;
+        this.evictGraceMillis = config.evictAfterQuitSeconds * 1000L;
+        this.shutdownTimeoutMillis = config.shutdownSaveTimeoutSeconds * 1000L;
+        int offlineCacheSize = config.offlineCacheSize;
+        this.offline = new LinkedHashMap<>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Long> eldest) {
+                return size() > offlineCacheSize;
+            }
+        };
+        this.storage = openStorage(config.storage);
+        load(config.timeJournal);
+        long now = nanoClock.getAsLong();
+        for (Player p : Bukkit.getOnlinePlayers()) {
+            clock.join(p.getUniqueId(), now);
+        }
+    }
 
-        
-        long add = deltaNanos / 1_000_000_000L;
-        if (add <= 0) return;
+    private TimeStorage openStorage(String type) {
+        try {
+            return TimeStorage.create(type, dataFolder);
+        } catch (IOException e) {
+            ItemProgressions.getPlugin(ItemProgressions.class).getLogger().warning("Could not open " + type + " time storage, falling back to yaml!: " + e.getMessage());
+            return new YamlTimeStorage(dataFolder);
+        }
+    }
 
+    public String storageName() {
+        return storage.name();
+    }
+
+    public synchronized void tick() {
+        long now = nanoClock.getAsLong();
+        long add = clock.advanceGlobal(now);
         globalSeconds += add;
 
-        Server server = Bukkit.getServer();
-        server.getOnlinePlayers().forEach(p -> playerSeconds.merge(p.getUniqueId(), add, Long::sum));
+        Collection<? extends Player> online = Bukkit.getServer().getOnlinePlayers();
+        long seq = journalSeq + 1;
+        ByteBuffer batch = journal == null ? null : PlaytimeJournal.batch(online.size() + 1);
+        if (batch != null && add > 0) PlaytimeJournal.put(batch, 0L, 0L, seq, add);
+        for (Player p : online) {
+            UUID uuid = p.getUniqueId();
+            credit(uuid, clock.advance(uuid, now), batch, seq);
+        }
+        flushJournal(batch, seq);
+        evictIdle();
+        expirePendingJoins();
+    }
+
+    private void credit(UUID uuid, long seconds, ByteBuffer batch, long seq) {
+        if (seconds <= 0) return;
+        playerSeconds.add(uuid, seconds);
+        dirty.add(uuid);
+        if (batch != null) PlaytimeJournal.put(batch, uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), seq, seconds);
+    }
+
+    private void flushJournal(ByteBuffer batch, long seq) {
+        if (batch == null || batch.position() == 0) return;
+        journalSeq = seq;
+        journalQueue.add(batch);
+        io.execute(this::drainJournal);
     }
 
-    public synchronized long getGlobalSeconds() {
+    private void drainJournal() {
+        if (journal == null || journalQueue.isEmpty()) return;
+        try {
+            ByteBuffer batch;
+            while ((batch = journalQueue.poll()) != null) {
+                journal.append(batch);
+            }
+            journal.force();
+        } catch (IOException e) {
+            ItemProgressions.getPlugin(ItemProgressions.class).getLogger().warning("Could not append to time journal!: " + e.getMessage());
+        }
+    }
+
+    public long journalBytes() {
+        return journal == null ? 0L : journal.sizeBytes();
+    }
+
+    public long getGlobalSeconds() {
         return globalSeconds;
     }
 
-    public synchronized long getPlayerSeconds(UUID uuid) {
-        return playerSeconds.getOrDefault(uuid, 0L);
+    public long getPlayerSeconds(UUID uuid) {
+        long known = peekPlayerSeconds(uuid);
+        if (known >= 0L) return known;
+        if (loading.add(uuid)) {
+            try {
+                io.execute(() -> {
+                    try {
+                        cacheOffline(uuid);
+                    } finally {
+                        loading.remove(uuid);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                loading.remove(uuid);
+            }
+        }
+        return 0L;
+    }
+
+    public long peekPlayerSeconds(UUID uuid) {
+        long resident = playerSeconds.getOrDefault(uuid, -1L);
+        if (resident >= 0L || !lazy) return Math.max(0L, resident);
+        synchronized (offline) {
+            Long cached = offline.get(uuid);
+            return cached != null ? cached : -1L;
+        }
+    }
+
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    public boolean prefetch(UUID uuid) {
+        if (!lazy || playerSeconds.contains(uuid) || pendingJoins.containsKey(uuid)) return true;
+        Long cached;
+        synchronized (offline) {
+            cached = offline.remove(uuid);
+        }
+        try {
+            long stored = cached != null ? cached : loadStored(uuid);
+            pendingJoins.putIfAbsent(uuid, new PendingJoin(stored, System.currentTimeMillis()));
+            return true;
+        } catch (IOException e) {
+            ItemProgressions.getPlugin(ItemProgressions.class).getLogger().warning("Could not load time data for " + uuid + "!: " + e.getMessage());
+            return false;
+        }
+    }
+
+    public void discardPrefetch(UUID uuid) {
+        PendingJoin pending = pendingJoins.remove(uuid);
+        if (pending == null) return;
+        synchronized (offline) {
+            offline.putIfAbsent(uuid, pending.seconds());
+        }
+    }
+
+    private void expirePendingJoins() {
+        if (pendingJoins.isEmpty()) return;
+        long cutoff = System.currentTimeMillis() - PENDING_JOIN_MILLIS;
+        for (Map.Entry<UUID, PendingJoin> entry : pendingJoins.entrySet()) {
+            if (entry.getValue().since() < cutoff) discardPrefetch(entry.getKey());
+        }
+    }
+
+    private boolean cacheOffline(UUID uuid) {
+        try {
+            long stored = loadStored(uuid);
+            synchronized (offline) {
+                offline.putIfAbsent(uuid, stored);
+            }
+            return true;
+        } catch (IOException e) {
+            ItemProgressions.getPlugin(ItemProgressions.class).getLogger().warning("Could not load time data for " + uuid + "!: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean loadResident(UUID uuid) {
+        Long cached = takeCached(uuid);
+        try {
+            long stored = cached != null ? cached : loadStored(uuid);
+            playerSeconds.putIfAbsent(uuid, stored);
+            return true;
+        } catch (IOException e) {
+            ItemProgressions.getPlugin(ItemProgressions.class).getLogger().warning("Could not load time data for " + uuid + "!: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private Long takeCached(UUID uuid) {
+        PendingJoin pending = pendingJoins.remove(uuid);
+        if (pending != null) return pending.seconds();
+        synchronized (offline) {
+            return offline.remove(uuid);
+        }
+    }
+
+    private CompletableFuture<Boolean> loadResidentAsync(UUID uuid) {
+        CompletableFuture<Boolean> running = joining.get(uuid);
+        if (running != null) return running;
+        try {
+            CompletableFuture<Boolean> load = CompletableFuture.supplyAsync(() -> {
+                long stored;
+                try {
+                    stored = loadStored(uuid);
+                } catch (IOException e) {
+                    ItemProgressions.getPlugin(ItemProgressions.class).getLogger().warning("Could not load time data for " + uuid + "!: " + e.getMessage());
+                    stored = -1L;
+                }
+                synchronized (this) {
+                    joining.remove(uuid);
+                    if (stored < 0L) return false;
+                    playerSeconds.add(uuid, stored);
+                    return true;
+                }
+            }, io);
+            joining.put(uuid, load);
+            return load;
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(false);
+        }
+    }
+
+    private long loadStored(UUID uuid) throws IOException {
+        storageLock.readLock().lock();
+        try {
+            return Math.max(0L, storage.loadPlayer(uuid));
+        } finally {
+            storageLock.readLock().unlock();
+        }
+    }
+
+    public synchronized CompletableFuture<Boolean> playerJoined(UUID uuid) {
+        idleSince.remove(uuid);
+        clock.join(uuid, nanoClock.getAsLong());
+        if (!lazy || playerSeconds.contains(uuid)) {
+            pendingJoins.remove(uuid);
+            return CompletableFuture.completedFuture(true);
+        }
+        Long cached = takeCached(uuid);
+        if (cached == null) return loadResidentAsync(uuid);
+        playerSeconds.putIfAbsent(uuid, cached);
+        return CompletableFuture.completedFuture(true);
+    }
+
+    public synchronized void playerQuit(UUID uuid) {
+        long seq = journalSeq + 1;
+        ByteBuffer batch = journal == null ? null : PlaytimeJournal.batch(1);
+        credit(uuid, clock.quit(uuid, nanoClock.getAsLong()), batch, seq);
+        flushJournal(batch, seq);
+        if (lazy) idleSince.put(uuid, System.currentTimeMillis());
+    }
+
+    public int residentCount() {
+        return playerSeconds.size();
+    }
+
+    public int offlineCacheCount() {
+        synchronized (offline) {
+            return offline.size();
+        }
+    }
+
+    private void evictIdle() {
+        if (idleSince.isEmpty()) return;
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<UUID, Long>> it = idleSince.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<UUID, Long> entry = it.next();
+            UUID uuid = entry.getKey();
+            if (now - entry.getValue() < evictGraceMillis || dirty.contains(uuid) || saving.contains(uuid) || joining.containsKey(uuid)) continue;
+            Player online = Bukkit.getPlayer(uuid);
+            if (online == null || !online.isOnline()) {
+                clock.forget(uuid);
+                long seconds = playerSeconds.remove(uuid);
+                if (seconds >= 0L) {
+                    synchronized (offline) {
+                        offline.put(uuid, seconds);
+                    }
+                }
+            }
+            it.remove();
+        }
+    }
+
+    public PlaytimeStore.MemoryReport memoryReport() {
+        return playerSeconds.memoryReport();
+    }
+
+    public int dirtyCount() {
+        return dirty.size();
+    }
+
+    public CompletableFuture<Void> saveAsync() {
+        TimeStorage.Snapshot snapshot = snapshot();
+        return CompletableFuture.runAsync(() -> write(snapshot), io);
     }
 
-    public synchronized void save() {
-        FileConfiguration cfg = new YamlConfiguration();
-        cfg.set("globalSeconds", globalSeconds);
-        for (Map.Entry<UUID, Long> e : playerSeconds.entrySet()) {
-            cfg.set("players." + e.getKey(), e.getValue());
+    public void close() {
+        Logger logger = ItemProgressions.getPlugin(ItemProgressions.class).getLogger();
+        long start = System.nanoTime();
+        TimeStorage.Snapshot snapshot;
+        synchronized (this) {
+            long now = nanoClock.getAsLong();
+            long seq = journalSeq + 1;
+            Collection<? extends Player> online = Bukkit.getOnlinePlayers();
+            ByteBuffer batch = journal == null ? null : PlaytimeJournal.batch(online.size());
+            for (Player p : online) {
+                credit(p.getUniqueId(), clock.quit(p.getUniqueId(), now), batch, seq);
+            }
+            flushJournal(batch, seq);
+            snapshot = snapshot();
         }
+        long snapshotted = System.nanoTime();
+        CompletableFuture<Void> flush = CompletableFuture.runAsync(() -> write(snapshot), io);
+        boolean flushed = false;
         try {
-            cfg.save(file);
+            flush.get(shutdownTimeoutMillis, TimeUnit.MILLISECONDS);
+            flushed = true;
+        } catch (TimeoutException e) {
+            logger.warning("Saving time data did not finish within " + shutdownTimeoutMillis + " ms, falling back to the journal");
+        } catch (ExecutionException e) {
+            logger.warning("Could not save time data!: " + e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long done = System.nanoTime();
+        if (flushed) {
+            logger.info("Saved time data for " + snapshot.size() + " players in " + millis(done - start) + " ms (snapshot " + millis(snapshotted - start) + " ms, flush " + millis(done - snapshotted) + " ms)");
+        } else if (journal != null) {
+            drainJournal();
+            logger.info("Journaled pending time data in " + millis(System.nanoTime() - done) + " ms; it will be replayed on next start");
+        } else {
+            logger.severe("Time data for " + snapshot.size() + " players could not be saved and no journal is enabled");
+        }
+
+        io.shutdown();
+        try {
+            if (!io.awaitTermination(flushed ? 5_000L : 0L, TimeUnit.MILLISECONDS)) io.shutdownNow();
+        } catch (InterruptedException e) {
+            io.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException ignored) {
+            }
+        }
+        if (!flushed) return;
+        try {
+            storage.close();
         } catch (IOException e) {
-            ItemProgressions.getPlugin(ItemProgressions.class).getLogger().warning("Could not save time data!: " + e.getMessage());
+            logger.warning("Could not close time storage!: " + e.getMessage());
         }
     }
 
-    public final void load() {
-        if (!file.exists()) return;
-        FileConfiguration cfg = YamlConfiguration.loadConfiguration(file);
-        this.globalSeconds = cfg.getLong("globalSeconds", 0L);
-        if (cfg.isConfigurationSection("players")) {
-            for (String key : Objects.requireNonNull(cfg.getConfigurationSection("players")).getKeys(false)) {
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000D);
+    }
+
+    public CompletableFuture<Integer> migrate(String targetType) {
+        TimeStorage.Snapshot pending = snapshot();
+        return CompletableFuture.supplyAsync(() -> {
+            write(pending);
+            TimeStorage source = storage;
+            if (source.name().equalsIgnoreCase(targetType)) {
+                throw new IllegalStateException("Time data is already stored in " + source.name());
+            }
+            TimeStorage target = null;
+            try {
+                target = TimeStorage.create(targetType, dataFolder);
+                PlaytimeStore copy = new PlaytimeStore(playerSeconds.size());
+                TimeStorage.Loaded loaded = source.load(copy);
+                List<UUID> failed = target.write(TimeStorage.Snapshot.of(copy, loaded.globalSeconds(), pending.journalSeq()));
+                if (!failed.isEmpty()) {
+                    throw new IllegalStateException(failed.size() + " players could not be written to " + target.name());
+                }
+                storageLock.writeLock().lock();
                 try {
-                    UUID id = UUID.fromString(key);
-                    long secs = (long) cfg.getDouble("players." + key, 0D);
-                    playerSeconds.put(id, secs);
-                } catch (IllegalArgumentException ignored) {
+                    this.storage = target;
+                } finally {
+                    storageLock.writeLock().unlock();
+                }
+                source.close();
+                return copy.size();
+            } catch (IOException e) {
+                closeQuietly(target);
+                throw new IllegalStateException(e.getMessage(), e);
+            } catch (RuntimeException e) {
+                closeQuietly(target);
+                throw e;
+            }
+        }, io);
+    }
+
+    private static void closeQuietly(TimeStorage storage) {
+        if (storage == null) return;
+        try {
+            storage.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private synchronized TimeStorage.Snapshot snapshot() {
+        UUID[] ids = dirty.stream().filter(uuid -> !joining.containsKey(uuid)).toArray(UUID[]::new);
+        long[] msb = new long[ids.length];
+        long[] lsb = new long[ids.length];
+        long[] seconds = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            dirty.remove(ids[i]);
+            saving.add(ids[i]);
+            msb[i] = ids[i].getMostSignificantBits();
+            lsb[i] = ids[i].getLeastSignificantBits();
+            seconds[i] = playerSeconds.get(msb[i], lsb[i]);
+        }
+        return new TimeStorage.Snapshot(globalSeconds, journalSeq, msb, lsb, seconds);
+    }
+
+    private void write(TimeStorage.Snapshot snapshot) {
+        List<UUID> failed = storage.write(snapshot);
+        for (UUID uuid : failed) {
+            if (!uuid.equals(TimeStorage.GLOBAL)) dirty.add(uuid);
+        }
+        for (int i = 0; i < snapshot.size(); i++) {
+            saving.remove(new UUID(snapshot.msb()[i], snapshot.lsb()[i]));
+        }
+        if (failed.isEmpty() && journal != null) {
+            try {
+                journal.compact(snapshot.journalSeq());
+            } catch (IOException e) {
+                ItemProgressions.getPlugin(ItemProgressions.class).getLogger().warning("Could not compact time journal!: " + e.getMessage());
+            }
+        }
+        if (failed.isEmpty() && legacyPending) {
+            File migrated = new File(legacyFile.getParentFile(), legacyFile.getName() + ".migrated");
+            if (legacyFile.renameTo(migrated)) {
+                legacyPending = false;
+            } else {
+                ItemProgressions.getPlugin(ItemProgressions.class).getLogger().warning("Could not rename migrated " + legacyFile.getName());
+            }
+        }
+    }
+
+    private void load(boolean journaled) {
+        if (legacyFile.exists()) {
+            YamlConfiguration legacy = YamlConfiguration.loadConfiguration(legacyFile);
+            this.globalSeconds = legacy.getLong("globalSeconds", 0L);
+            YamlTimeStorage.readPlayers(legacy, playerSeconds);
+            long now = System.currentTimeMillis();
+            playerSeconds.forEach((uuid, seconds) -> {
+                dirty.add(uuid);
+                if (lazy) idleSince.put(uuid, now);
+            });
+            legacyPending = true;
+        }
+        TimeStorage.Loaded loaded;
+        try {
+            loaded = lazy ? storage.loadMeta() : storage.load(playerSeconds);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not load time data from " + storage.name() + " storage", e);
+        }
+        this.globalSeconds = Math.max(globalSeconds, loaded.globalSeconds());
+        this.journalSeq = loaded.maxSeq();
+        if (lazy) {
+            for (Player p : Bukkit.getOnlinePlayers()) {
+                if (!playerSeconds.contains(p.getUniqueId()) && !loadResident(p.getUniqueId())) {
+                    throw new IllegalStateException("Could not load time data for online player " + p.getName());
                 }
             }
         }
+        if (!journaled) return;
+        try {
+            this.journal = new PlaytimeJournal(new File(dataFolder, "time-data/journal.bin"));
+            PlaytimeStore deltas = new PlaytimeStore();
+            long replayedSeq = journal.replay(loaded, (msb, lsb, delta) -> {
+                if (msb == 0L && lsb == 0L) {
+                    globalSeconds += delta;
+                } else {
+                    deltas.add(new UUID(msb, lsb), delta);
+                }
+            });
+            this.journalSeq = Math.max(journalSeq, replayedSeq);
+            long now = System.currentTimeMillis();
+            for (UUID uuid : collect(deltas)) {
+                if (lazy && !playerSeconds.contains(uuid)) {
+                    playerSeconds.put(uuid, loadStored(uuid));
+                    idleSince.put(uuid, now);
+                }
+                playerSeconds.add(uuid, deltas.get(uuid));
+                dirty.add(uuid);
+            }
+        } catch (IOException e) {
+            ItemProgressions.getPlugin(ItemProgressions.class).getLogger().warning("Could not open time journal, continuing without it!: " + e.getMessage());
+            this.journal = null;
+        }
+    }
+
+    private record PendingJoin(long seconds, long since) {
+    }
+
+    private static List<UUID> collect(PlaytimeStore store) {
+        List<UUID> ids = new ArrayList<>(store.size());
+        store.forEach((uuid, seconds) -> ids.add(uuid));
+        return ids;
     }
 }
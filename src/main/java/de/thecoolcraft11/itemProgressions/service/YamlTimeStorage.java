@@ -0,0 +1,169 @@
+package de.thecoolcraft11.itemProgressions.service;
+
+import de.thecoolcraft11.itemProgressions.ItemProgressions;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+final class YamlTimeStorage implements TimeStorage {
+    private final File directory;
+    private final long[] shardSeq = new long[SHARDS];
+
+    YamlTimeStorage(File dataFolder) {
+        this.directory = new File(dataFolder, "time-data");
+    }
+
+    @Override
+    public String name() {
+        return "yaml";
+    }
+
+    @Override
+    public Loaded load(PlaytimeStore store) {
+        return read(store);
+    }
+
+    @Override
+    public Loaded loadMeta() {
+        return read(null);
+    }
+
+    private synchronized Loaded read(PlaytimeStore store) {
+        long global = 0L;
+        long globalSeq = 0L;
+        List<Long> recorded = List.of();
+        File globalFile = new File(directory, "global.yml");
+        if (globalFile.exists()) {
+            FileConfiguration cfg = YamlConfiguration.loadConfiguration(globalFile);
+            global = cfg.getLong("globalSeconds", 0L);
+            globalSeq = cfg.getLong("journalSeq", 0L);
+            recorded = cfg.getLongList("shardSeq");
+        }
+        boolean haveSeqs = recorded.size() == SHARDS;
+        for (int i = 0; i < SHARDS; i++) {
+            shardSeq[i] = haveSeqs ? recorded.get(i) : 0L;
+        }
+        if (store != null || !haveSeqs) {
+            File[] files = directory.listFiles((dir, name) -> name.endsWith(".yml") && !name.equals("global.yml"));
+            if (files != null) {
+                for (File shard : files) {
+                    FileConfiguration cfg = YamlConfiguration.loadConfiguration(shard);
+                    try {
+                        int index = Integer.parseInt(shard.getName().substring(0, 2), 16);
+                        shardSeq[index] = Math.max(shardSeq[index], cfg.getLong("journalSeq", 0L));
+                    } catch (NumberFormatException | StringIndexOutOfBoundsException ignored) {
+                    }
+                    if (store != null) readPlayers(cfg, store);
+                }
+            }
+        }
+        return new Loaded(global, globalSeq, shardSeq.clone());
+    }
+
+    static void readPlayers(FileConfiguration cfg, PlaytimeStore store) {
+        ConfigurationSection players = cfg.getConfigurationSection("players");
+        if (players == null) return;
+        for (String key : players.getKeys(false)) {
+            try {
+                store.put(UUID.fromString(key), (long) players.getDouble(key, 0D));
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+    }
+
+    @Override
+    public synchronized long loadPlayer(UUID uuid) {
+        File file = new File(directory, shardName(TimeStorage.shardOf(uuid.getMostSignificantBits())) + ".yml");
+        if (!file.exists()) return -1L;
+        FileConfiguration cfg = YamlConfiguration.loadConfiguration(file);
+        String path = "players." + uuid;
+        return cfg.contains(path) ? (long) cfg.getDouble(path, 0D) : -1L;
+    }
+
+    @Override
+    public synchronized List<UUID> write(Snapshot snapshot) {
+        List<UUID> failed = new ArrayList<>();
+        try {
+            Files.createDirectories(directory.toPath());
+        } catch (IOException e) {
+            warn("Could not create " + directory + "!: " + e.getMessage());
+        }
+
+        int[] order = snapshot.shardOrder();
+        int from = 0;
+        while (from < order.length) {
+            int shard = TimeStorage.shardOf(snapshot.msb()[order[from]]);
+            int to = from;
+            while (to < order.length && TimeStorage.shardOf(snapshot.msb()[order[to]]) == shard) to++;
+            try {
+                writeShard(shard, snapshot, order, from, to);
+                shardSeq[shard] = snapshot.journalSeq();
+            } catch (IOException e) {
+                warn("Could not save time data shard " + shardName(shard) + "!: " + e.getMessage());
+                for (int i = from; i < to; i++) {
+                    failed.add(new UUID(snapshot.msb()[order[i]], snapshot.lsb()[order[i]]));
+                }
+            }
+            from = to;
+        }
+
+        try {
+            FileConfiguration global = new YamlConfiguration();
+            global.set("globalSeconds", snapshot.globalSeconds());
+            global.set("journalSeq", snapshot.journalSeq());
+            List<Long> seqs = new ArrayList<>(SHARDS);
+            for (long seq : shardSeq) seqs.add(seq);
+            global.set("shardSeq", seqs);
+            replace(new File(directory, "global.yml").toPath(), global.saveToString());
+        } catch (IOException e) {
+            warn("Could not save global time data!: " + e.getMessage());
+            failed.add(GLOBAL);
+        }
+        return failed;
+    }
+
+    private void writeShard(int shard, Snapshot snapshot, int[] order, int from, int to) throws IOException {
+        File file = new File(directory, shardName(shard) + ".yml");
+        FileConfiguration cfg = file.exists() ? YamlConfiguration.loadConfiguration(file) : new YamlConfiguration();
+        cfg.set("journalSeq", snapshot.journalSeq());
+        for (int i = from; i < to; i++) {
+            int entry = order[i];
+            cfg.set("players." + new UUID(snapshot.msb()[entry], snapshot.lsb()[entry]), snapshot.seconds()[entry]);
+        }
+        replace(file.toPath(), cfg.saveToString());
+    }
+
+    private static void replace(Path target, String content) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.writeString(tmp, content, StandardCharsets.UTF_8);
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void warn(String message) {
+        ItemProgressions.getPlugin(ItemProgressions.class).getLogger().warning(message);
+    }
+
+    private static String shardName(int shard) {
+        return String.format(Locale.ROOT, "%02x", shard);
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,185 @@
+package de.thecoolcraft11.itemProgressions.listener;
+
+import de.thecoolcraft11.itemProgressions.config.LockConfig;
+import de.thecoolcraft11.itemProgressions.logic.CountdownFormat;
+import de.thecoolcraft11.itemProgressions.logic.LockEvaluator;
+import de.thecoolcraft11.itemProgressions.packet.FakeItemPacketHook;
+import de.thecoolcraft11.itemProgressions.scheduler.TaskScheduler;
+import de.thecoolcraft11.itemProgressions.service.TimeTrackerService;
+import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.Material;
+import org.bukkit.Server;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerGameModeChangeEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LockListenersPacketTest {
+    private static final String CONFIG = """
+            decorationMode: packet
+            locks:
+              - items: ["DIAMOND_SWORD"]
+                unlock:
+                  type: per-player
+                  seconds: 3600
+            """;
+
+    private final UUID uuid = UUID.randomUUID();
+    private FakeItemPacketHook hook;
+    private TimeTrackerService time;
+    private Player player;
+    private LockListeners listeners;
+
+    @BeforeAll
+    static void installServer() {
+        if (Bukkit.getServer() == null) {
+            Server server = mock(Server.class);
+            when(server.getLogger()).thenReturn(Logger.getLogger("ItemProgressionsTest"));
+            Bukkit.setServer(server);
+        }
+        doReturn(List.of()).when(Bukkit.getServer()).getOnlinePlayers();
+    }
+
+    @BeforeEach
+    void setUp() throws InvalidConfigurationException {
+        YamlConfiguration yaml = new YamlConfiguration();
+        yaml.loadFromString(CONFIG);
+        LockConfig config = new LockConfig(yaml);
+
+        time = mock(TimeTrackerService.class);
+        when(time.peekPlayerSeconds(uuid)).thenReturn(0L);
+        player = mock(Player.class);
+        when(player.getUniqueId()).thenReturn(uuid);
+        when(player.isOnline()).thenReturn(true);
+        when(player.getGameMode()).thenReturn(GameMode.SURVIVAL);
+
+        hook = new FakeItemPacketHook();
+        listeners = new LockListeners(new LockEvaluator(config, time), config.blockedMessage, config.messageCooldownSeconds,
+                config.allowBreaking, config.allowDropping, null, hook, new CountdownFormat(config.countdownSteps),
+                config.decorationBudgetMicros, mock(TaskScheduler.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        listeners.shutdown();
+    }
+
+    @Test
+    void installsRewriterOnConstruction() {
+        assertTrue(hook.isInstalled());
+    }
+
+    @Test
+    void packetBeforeJoinIsUntouchedAndOpensNoSession() {
+        ItemStack outgoing = item(Material.DIAMOND_SWORD);
+
+        assertSame(outgoing, hook.send(player, outgoing));
+        assertEquals(0, listeners.sessionCount());
+        verify(player, never()).hasPermission(anyString());
+        verify(player, never()).getGameMode();
+        verify(time, never()).getPlayerSeconds(any());
+    }
+
+    @Test
+    void lockedItemIsDecoratedFromPublishedState() {
+        listeners.onJoin(join());
+        clearInvocations(player, time);
+        ItemStack outgoing = item(Material.DIAMOND_SWORD);
+        ItemStack copy = decoratableCopy(outgoing);
+        ItemMeta meta = copy.getItemMeta();
+
+        assertSame(copy, hook.send(player, outgoing));
+        verify(copy).setItemMeta(meta);
+        verify(player, never()).hasPermission(anyString());
+        verify(player, never()).getGameMode();
+        verify(time, never()).getPlayerSeconds(any());
+    }
+
+    @Test
+    void unlockedItemIsUntouched() {
+        listeners.onJoin(join());
+        ItemStack outgoing = item(Material.STONE);
+
+        assertSame(outgoing, hook.send(player, outgoing));
+        verify(outgoing, never()).clone();
+    }
+
+    @Test
+    void creativeViewerUsesCachedGameMode() {
+        when(player.getGameMode()).thenReturn(GameMode.CREATIVE);
+        listeners.onJoin(join());
+        ItemStack outgoing = item(Material.DIAMOND_SWORD);
+
+        assertSame(outgoing, hook.send(player, outgoing));
+
+        PlayerGameModeChangeEvent change = mock(PlayerGameModeChangeEvent.class);
+        when(change.getPlayer()).thenReturn(player);
+        when(change.getNewGameMode()).thenReturn(GameMode.SURVIVAL);
+        listeners.onGameModeChange(change);
+        clearInvocations(player);
+        ItemStack copy = decoratableCopy(outgoing);
+
+        assertSame(copy, hook.send(player, outgoing));
+        verify(player, never()).getGameMode();
+    }
+
+    @Test
+    void packetAfterQuitIsUntouched() {
+        listeners.onJoin(join());
+        PlayerQuitEvent quit = mock(PlayerQuitEvent.class);
+        when(quit.getPlayer()).thenReturn(player);
+        listeners.onQuit(quit);
+        clearInvocations(player, time);
+        ItemStack outgoing = item(Material.DIAMOND_SWORD);
+
+        assertSame(outgoing, hook.send(player, outgoing));
+        verify(player, never()).hasPermission(anyString());
+        verify(time, never()).getPlayerSeconds(any());
+    }
+
+    private PlayerJoinEvent join() {
+        PlayerJoinEvent event = mock(PlayerJoinEvent.class);
+        when(event.getPlayer()).thenReturn(player);
+        return event;
+    }
+
+    private static ItemStack decoratableCopy(ItemStack outgoing) {
+        ItemStack copy = item(outgoing.getType());
+        ItemMeta meta = mock(ItemMeta.class);
+        when(meta.lore()).thenReturn(null);
+        when(copy.getItemMeta()).thenReturn(meta);
+        when(outgoing.clone()).thenReturn(copy);
+        return copy;
+    }
+
+    private static ItemStack item(Material type) {
+        ItemStack stack = mock(ItemStack.class);
+        when(stack.getType()).thenReturn(type);
+        return stack;
+    }
+}
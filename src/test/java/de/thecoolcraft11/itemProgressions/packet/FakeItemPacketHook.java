@@ -0,0 +1,55 @@
+package de.thecoolcraft11.itemProgressions.packet;
+
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public final class FakeItemPacketHook implements ItemPacketHook {
+    private final ExecutorService channel = Executors.newSingleThreadExecutor(r -> new Thread(r, "fake-netty"));
+    private final List<Player> resent = new ArrayList<>();
+    private volatile Rewriter rewriter;
+
+    @Override
+    public void install(Rewriter rewriter) {
+        this.rewriter = rewriter;
+    }
+
+    @Override
+    public void uninstall() {
+        rewriter = null;
+        channel.shutdownNow();
+    }
+
+    @Override
+    public void resend(Player player) {
+        resent.add(player);
+    }
+
+    public ItemStack send(Player viewer, ItemStack outgoing) {
+        try {
+            return channel.submit(() -> {
+                Rewriter current = rewriter;
+                ItemStack rewritten = current == null ? null : current.rewrite(viewer, outgoing);
+                return rewritten != null ? rewritten : outgoing;
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public boolean isInstalled() {
+        return rewriter != null;
+    }
+
+    public List<Player> resent() {
+        return resent;
+    }
+}
@@ -0,0 +1,90 @@
+package de.thecoolcraft11.itemProgressions.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PlaytimeClockTest {
+    private static final long SECOND = 1_000_000_000L;
+    private static final long DAY = 86_400L * SECOND;
+    private static final int PLAYERS = 16;
+
+    @Test
+    void noDriftOverTwentyFourSimulatedHours() {
+        for (long seed = 1; seed <= 20; seed++) {
+            simulate(seed);
+        }
+    }
+
+    @Test
+    void carryIsKeptAcrossQuitAndRejoin() {
+        UUID uuid = UUID.randomUUID();
+        PlaytimeClock clock = new PlaytimeClock(0L);
+        clock.join(uuid, 0L);
+        long credited = clock.quit(uuid, 700_000_000L);
+        clock.join(uuid, 5L * SECOND);
+        credited += clock.quit(uuid, 5L * SECOND + 700_000_000L);
+
+        assertEquals(1L, credited);
+    }
+
+    private static void simulate(long seed) {
+        Random random = new Random(seed);
+        long start = random.nextLong(SECOND * 1000L);
+        PlaytimeClock clock = new PlaytimeClock(start);
+
+        UUID[] ids = new UUID[PLAYERS];
+        boolean[] online = new boolean[PLAYERS];
+        long[] since = new long[PLAYERS];
+        long[] exactNanos = new long[PLAYERS];
+        long[] credited = new long[PLAYERS];
+        for (int i = 0; i < PLAYERS; i++) ids[i] = new UUID(seed, i);
+
+        long now = start;
+        long global = 0L;
+        while (now - start < DAY) {
+            long step = SECOND + random.nextLong(-SECOND / 20, SECOND / 20);
+            if (random.nextInt(500) == 0) step += random.nextLong(2L * SECOND, 30L * SECOND);
+            long next = now + step;
+
+            long[] times = new long[random.nextInt(3)];
+            for (int e = 0; e < times.length; e++) times[e] = now + 1 + random.nextLong(step - 1);
+            Arrays.sort(times);
+            for (long at : times) {
+                int i = random.nextInt(PLAYERS);
+                if (online[i]) {
+                    credited[i] += clock.quit(ids[i], at);
+                    exactNanos[i] += at - since[i];
+                    online[i] = false;
+                } else {
+                    clock.join(ids[i], at);
+                    since[i] = at;
+                    online[i] = true;
+                }
+            }
+
+            now = next;
+            global += clock.advanceGlobal(now);
+            for (int i = 0; i < PLAYERS; i++) {
+                if (!online[i]) continue;
+                credited[i] += clock.advance(ids[i], now);
+                exactNanos[i] += now - since[i];
+                since[i] = now;
+            }
+        }
+
+        for (int i = 0; i < PLAYERS; i++) {
+            if (!online[i]) continue;
+            credited[i] += clock.quit(ids[i], now);
+        }
+
+        assertEquals((now - start) / SECOND, global, "global seconds, seed " + seed);
+        for (int i = 0; i < PLAYERS; i++) {
+            assertEquals(exactNanos[i] / SECOND, credited[i], "player " + i + ", seed " + seed);
+        }
+    }
+}
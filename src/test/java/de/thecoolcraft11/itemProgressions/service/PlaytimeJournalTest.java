@@ -0,0 +1,50 @@
+package de.thecoolcraft11.itemProgressions.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PlaytimeJournalTest {
+    @TempDir
+    File dir;
+
+    @Test
+    void compactKeepsRecordsNewerThanTheSnapshot() throws IOException {
+        try (PlaytimeJournal journal = new PlaytimeJournal(new File(dir, "journal.bin"))) {
+            for (long seq = 1; seq <= 3; seq++) append(journal, seq);
+
+            journal.compact(2L);
+            append(journal, 4L);
+
+            List<Long> deltas = new ArrayList<>();
+            long maxSeq = journal.replay(TimeStorage.Loaded.uniform(0L, 2L), (msb, lsb, delta) -> deltas.add(delta));
+            assertEquals(4L, maxSeq);
+            assertEquals(List.of(30L, 40L), deltas);
+            assertEquals(2L * PlaytimeJournal.RECORD_BYTES, journal.sizeBytes());
+        }
+    }
+
+    @Test
+    void compactTruncatesWhenEverythingIsCovered() throws IOException {
+        try (PlaytimeJournal journal = new PlaytimeJournal(new File(dir, "journal.bin"))) {
+            for (long seq = 1; seq <= 3; seq++) append(journal, seq);
+
+            journal.compact(3L);
+
+            assertEquals(0L, journal.sizeBytes());
+        }
+    }
+
+    private static void append(PlaytimeJournal journal, long seq) throws IOException {
+        ByteBuffer batch = PlaytimeJournal.batch(1);
+        PlaytimeJournal.put(batch, 1L, 2L, seq, seq * 10L);
+        journal.append(batch);
+    }
+}